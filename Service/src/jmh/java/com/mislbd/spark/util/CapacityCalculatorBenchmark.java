@@ -0,0 +1,125 @@
+package com.mislbd.spark.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-member capacity and sprint summary arithmetic: the previous BigDecimal calculation against
+ * {@link CapacityCalculator}. Setup checks that both produce the same scale-2 results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CapacityCalculatorBenchmark {
+
+    @Param({"10", "200"})
+    public int members;
+
+    private final int sprintDays = 10;
+    private BigDecimal[] dailyHours;
+    private BigDecimal[] capacityPercent;
+    private BigDecimal[] allocatedHours;
+    private int[] leaveDays;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        dailyHours = new BigDecimal[members];
+        capacityPercent = new BigDecimal[members];
+        allocatedHours = new BigDecimal[members];
+        leaveDays = new int[members];
+        for (int i = 0; i < members; i++) {
+            dailyHours[i] = BigDecimal.valueOf(400 + random.nextInt(500), 2);
+            capacityPercent[i] = BigDecimal.valueOf(2_000 + random.nextInt(8_001), 2);
+            allocatedHours[i] = BigDecimal.valueOf(random.nextInt(10_000), 2);
+            leaveDays[i] = random.nextInt(4);
+        }
+        long[] expected = bigDecimal();
+        long[] actual = fixedPoint();
+        if (!java.util.Arrays.equals(expected, actual)) {
+            throw new IllegalStateException("Implementations disagree: " + java.util.Arrays.toString(expected)
+                    + " vs " + java.util.Arrays.toString(actual));
+        }
+    }
+
+    @Benchmark
+    public void bigDecimal(Blackhole blackhole) {
+        blackhole.consume(bigDecimal());
+    }
+
+    @Benchmark
+    public void fixedPoint(Blackhole blackhole) {
+        blackhole.consume(fixedPoint());
+    }
+
+    /**
+     * The calculation as it was done with BigDecimal; available hours are rounded to the column
+     * scale as the database did on store.
+     */
+    private long[] bigDecimal() {
+        BigDecimal potential = BigDecimal.ZERO;
+        BigDecimal available = BigDecimal.ZERO;
+        BigDecimal allocated = BigDecimal.ZERO;
+        BigDecimal utilizationSum = BigDecimal.ZERO;
+        for (int i = 0; i < members; i++) {
+            BigDecimal total = BigDecimal.valueOf(sprintDays).multiply(dailyHours[i]);
+            int workingDays = Math.max(0, sprintDays - leaveDays[i]);
+            BigDecimal memberAvailable = BigDecimal.valueOf(workingDays).multiply(dailyHours[i])
+                    .multiply(capacityPercent[i].divide(BigDecimal.valueOf(100)))
+                    .setScale(2, RoundingMode.HALF_UP);
+            BigDecimal utilization = memberAvailable.compareTo(BigDecimal.ZERO) == 0 ? BigDecimal.ZERO
+                    : allocatedHours[i].multiply(BigDecimal.valueOf(100)).divide(memberAvailable, 2, RoundingMode.HALF_UP);
+            potential = potential.add(total);
+            available = available.add(memberAvailable);
+            allocated = allocated.add(allocatedHours[i]);
+            utilizationSum = utilizationSum.add(utilization);
+        }
+        BigDecimal averageUtilization = available.compareTo(BigDecimal.ZERO) > 0
+                ? allocated.multiply(BigDecimal.valueOf(100)).divide(available, 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+        BigDecimal teamEfficiency = potential.compareTo(BigDecimal.ZERO) > 0
+                ? available.multiply(BigDecimal.valueOf(100)).divide(potential, 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+        return new long[]{
+                CapacityCalculator.toCenti(potential),
+                CapacityCalculator.toCenti(available),
+                CapacityCalculator.toCenti(allocated),
+                CapacityCalculator.toCenti(utilizationSum),
+                CapacityCalculator.toCenti(averageUtilization),
+                CapacityCalculator.toCenti(teamEfficiency)};
+    }
+
+    private long[] fixedPoint() {
+        long potential = 0;
+        long available = 0;
+        long allocated = 0;
+        long utilizationSum = 0;
+        for (int i = 0; i < members; i++) {
+            long daily = CapacityCalculator.toCenti(dailyHours[i]);
+            long memberAllocated = CapacityCalculator.toCenti(allocatedHours[i]);
+            long memberAvailable = CapacityCalculator.availableCentiHours(
+                    Math.max(0, sprintDays - leaveDays[i]), daily, CapacityCalculator.toCenti(capacityPercent[i]));
+            potential += CapacityCalculator.totalCentiHours(sprintDays, daily);
+            available += memberAvailable;
+            allocated += memberAllocated;
+            utilizationSum += CapacityCalculator.percentOf(memberAllocated, memberAvailable);
+        }
+        return new long[]{
+                potential,
+                available,
+                allocated,
+                utilizationSum,
+                CapacityCalculator.percentOf(allocated, available),
+                CapacityCalculator.percentOf(available, potential)};
+    }
+}
@@ -0,0 +1,59 @@
+package com.mislbd.spark.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableAsync
+@Slf4j
+public class AsyncConfig {
+
+    /**
+     * Spring Boot backs off its default executor once any Executor bean exists. Keep it, as MVC
+     * async requests (StreamingResponseBody exports and downloads) run on it.
+     */
+    @Bean(name = "applicationTaskExecutor")
+    @Primary
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Bounded pool for document preview generation. When the queue is full the task is dropped
+     * (and logged) rather than run on the caller's thread, so uploads never wait for previews.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor documentPreviewExecutor(
+            @Value("${spark.documents.preview.threads:2}") int threads,
+            @Value("${spark.documents.preview.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("doc-preview-");
+        executor.setRejectedExecutionHandler((task, pool) ->
+                log.warn("Document preview queue is full ({} pending); skipping a preview", pool.getQueue().size()));
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Single thread for document search index updates. The queue is unbounded: an update that was
+     * dropped would leave a deleted document searchable or a new one missing until the next start.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor documentIndexExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("doc-index-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
@@ -1,17 +1,45 @@
 package com.mislbd.spark.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Bounded Caffeine caches with per-cache limits from {@link SparkCacheProperties}. Statistics are
+ * recorded so Spring Boot binds hit, miss, eviction and size metrics for each cache.
+ */
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(SparkCacheProperties.class)
 public class CacheConfig {
 
+    private static final List<String> CACHE_NAMES = List.of(
+            "users", "userList", "teams", "teamList", "teamMembers", "userTeams");
+
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager("users", "teams", "teamMembers");
+    public CacheManager cacheManager(SparkCacheProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(builder(properties.getDefaultMaximumSize(), properties.getDefaultExpireAfterWrite()));
+        for (String name : CACHE_NAMES) {
+            SparkCacheProperties.Spec spec = properties.getSpecs().getOrDefault(name, new SparkCacheProperties.Spec());
+            long maximumSize = spec.getMaximumSize() != null ? spec.getMaximumSize() : properties.getDefaultMaximumSize();
+            Duration ttl = spec.getExpireAfterWrite() != null ? spec.getExpireAfterWrite() : properties.getDefaultExpireAfterWrite();
+            cacheManager.registerCustomCache(name, builder(maximumSize, ttl).build());
+        }
+        return cacheManager;
+    }
+
+    private static Caffeine<Object, Object> builder(long maximumSize, Duration expireAfterWrite) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats();
     }
 }
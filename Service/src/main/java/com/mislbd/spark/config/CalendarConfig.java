@@ -0,0 +1,9 @@
+package com.mislbd.spark.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SparkCalendarProperties.class)
+public class CalendarConfig {
+}
@@ -0,0 +1,27 @@
+package com.mislbd.spark.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size and expiry limits for the application caches, bound from {@code spark.cache.*}.
+ * Caches without an entry under {@code spark.cache.specs} use the defaults.
+ */
+@Data
+@ConfigurationProperties(prefix = "spark.cache")
+public class SparkCacheProperties {
+
+    private long defaultMaximumSize = 1_000;
+    private Duration defaultExpireAfterWrite = Duration.ofMinutes(10);
+    private Map<String, Spec> specs = new LinkedHashMap<>();
+
+    @Data
+    public static class Spec {
+        private Long maximumSize;
+        private Duration expireAfterWrite;
+    }
+}
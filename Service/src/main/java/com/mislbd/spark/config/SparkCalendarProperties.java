@@ -0,0 +1,26 @@
+package com.mislbd.spark.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Working-day calendar, bound from {@code spark.calendar.*}: the weekly days off, company-wide
+ * holidays and extra days off per team (keyed by team id).
+ */
+@Data
+@ConfigurationProperties(prefix = "spark.calendar")
+public class SparkCalendarProperties {
+
+    private Set<DayOfWeek> weekendDays = EnumSet.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY);
+    private List<LocalDate> holidays = new ArrayList<>();
+    private Map<Integer, List<LocalDate>> teamDaysOff = new LinkedHashMap<>();
+}
@@ -1,31 +1,83 @@
 package com.mislbd.spark.controller;
 
+import com.mislbd.spark.dto.DocumentSearchHitDto;
+import com.mislbd.spark.dto.DocumentUploadDto;
+import com.mislbd.spark.dto.DocumentUploadRequestDto;
 import com.mislbd.spark.dto.MitsDocumentsDto;
 import com.mislbd.spark.entity.MitsDocuments;
 import com.mislbd.spark.mapper.MitsDocumentsMapper;
+import com.mislbd.spark.repository.projection.MitsDocumentSummary;
+import com.mislbd.spark.service.DocumentPreviewService;
+import com.mislbd.spark.service.DocumentSearchIndex;
+import com.mislbd.spark.service.MitsDocumentUploadService;
 import com.mislbd.spark.service.MitsDocumentsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/mits-documents")
 public class MitsDocumentsController {
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
     private final MitsDocumentsService mitsDocumentsService;
+    private final MitsDocumentUploadService mitsDocumentUploadService;
+    private final DocumentPreviewService documentPreviewService;
+    private final DocumentSearchIndex documentSearchIndex;
     private final MitsDocumentsMapper mitsDocumentsMapper;
 
     @Autowired
-    public MitsDocumentsController(MitsDocumentsService mitsDocumentsService, MitsDocumentsMapper mitsDocumentsMapper) {
+    public MitsDocumentsController(MitsDocumentsService mitsDocumentsService,
+                                   MitsDocumentUploadService mitsDocumentUploadService,
+                                   DocumentPreviewService documentPreviewService,
+                                   DocumentSearchIndex documentSearchIndex,
+                                   MitsDocumentsMapper mitsDocumentsMapper) {
         this.mitsDocumentsService = mitsDocumentsService;
+        this.mitsDocumentUploadService = mitsDocumentUploadService;
+        this.documentPreviewService = documentPreviewService;
+        this.documentSearchIndex = documentSearchIndex;
         this.mitsDocumentsMapper = mitsDocumentsMapper;
     }
 
+    // Metadata only; the content is served by /{id}/content
     @GetMapping
     public List<MitsDocumentsDto> getAllMitsDocuments() {
-        return mitsDocumentsService.getAllMitsDocuments().stream().map(mitsDocumentsMapper::toDto).collect(Collectors.toList());
+        return mitsDocumentsService.getAllMitsDocumentSummaries().stream().map(mitsDocumentsMapper::toDto).collect(Collectors.toList());
+    }
+
+    // Full-text search over document contents; snippets are HTML-escaped with <mark> around matches
+    @GetMapping("/search")
+    public ResponseEntity<List<DocumentSearchHitDto>> searchMitsDocuments(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) throws IOException {
+        if (q.isBlank() || limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(documentSearchIndex.search(q, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
@@ -36,6 +88,153 @@ public class MitsDocumentsController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Streams the stored file; supports a single byte range (Range: bytes=start-end).
+    // The file name and type of a document can change and the document can be deleted, so this
+    // URL is revalidated on every use (ETag over the content hash and those headers). The
+    // immutable, cacheable copy is served from /content/{hash}.
+    @GetMapping("/{id}/content")
+    public ResponseEntity<StreamingResponseBody> getMitsDocumentContent(
+            @PathVariable Integer id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<MitsDocumentSummary> found = mitsDocumentsService.getMitsDocumentSummary(id);
+        if (found.isEmpty() || found.get().getFileSize() == null) {
+            return ResponseEntity.notFound().build();
+        }
+        MitsDocumentSummary document = found.get();
+        String etag = document.getContentHash() != null ? representationTag(document) : null;
+        if (etag != null && ifNoneMatch != null && etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        String fileName = document.getFileName() != null ? document.getFileName() : "document-" + id;
+        return serveContent(document.getFileSize(), contentType(document.getMimetype()), fileName, etag,
+                etag != null ? CacheControl.noCache() : null, rangeHeader, ifRange,
+                (offset, length, out) -> mitsDocumentsService.writeMitsDocumentContent(id, offset, length, out));
+    }
+
+    // Content by its SHA-256 (contentHash of the document). The bytes under a hash never change,
+    // so the response is immutable; it carries no document name or type, as several documents
+    // may share the content.
+    @GetMapping("/content/{hash}")
+    public ResponseEntity<StreamingResponseBody> getStoredContent(
+            @PathVariable String hash,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<Long> size = mitsDocumentsService.getStoredContentSize(hash);
+        if (size.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = "\"" + hash + "\"";
+        if (ifNoneMatch != null && etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(IMMUTABLE)
+                    .build();
+        }
+        return serveContent(size.get(), MediaType.APPLICATION_OCTET_STREAM, hash, etag, IMMUTABLE, rangeHeader, ifRange,
+                (offset, length, out) -> mitsDocumentsService.writeStoredContent(hash, offset, length, out));
+    }
+
+    // Small PNG preview for image documents; 404 until generated or for other types.
+    // Revalidated like /{id}/content, since the document can be deleted.
+    @GetMapping(value = "/{id}/thumbnail", produces = MediaType.IMAGE_PNG_VALUE)
+    public ResponseEntity<byte[]> getMitsDocumentThumbnail(
+            @PathVariable Integer id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) throws IOException {
+        Optional<String> hash = mitsDocumentsService.getMitsDocumentSummary(id).map(MitsDocumentSummary::getContentHash);
+        if (hash.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = "\"" + hash.get() + "\"";
+        if (ifNoneMatch != null && etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+        return documentPreviewService.getThumbnail(hash.get())
+                .map(png -> ResponseEntity.ok().contentType(MediaType.IMAGE_PNG)
+                        .eTag(etag).cacheControl(CacheControl.noCache()).body(png))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // First few hundred characters of text documents; 404 until generated or for other types
+    @GetMapping(value = "/{id}/excerpt", produces = MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8")
+    public ResponseEntity<String> getMitsDocumentExcerpt(
+            @PathVariable Integer id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) throws IOException {
+        Optional<String> hash = mitsDocumentsService.getMitsDocumentSummary(id).map(MitsDocumentSummary::getContentHash);
+        if (hash.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = "\"" + hash.get() + "\"";
+        if (ifNoneMatch != null && etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+        return documentPreviewService.getExcerpt(hash.get())
+                .map(text -> ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(text))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Multipart upload; the part is spooled to disk by the servlet container and streamed into the content store
+    @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<MitsDocumentsDto> uploadMitsDocument(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) Integer mits,
+            @RequestParam(required = false) String description) throws IOException {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        MitsDocuments document = MitsDocuments.builder()
+                .mits(mits)
+                .description(description)
+                .fileName(file.getOriginalFilename())
+                .mimetype(file.getContentType() != null ? file.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE)
+                .build();
+        try (InputStream content = file.getInputStream()) {
+            MitsDocuments saved = mitsDocumentsService.saveMitsDocumentsContent(document, content);
+            return ResponseEntity.status(HttpStatus.CREATED).body(mitsDocumentsMapper.toDto(saved));
+        }
+    }
+
+    // Chunked upload: POST /uploads, then PUT /uploads/{uploadId}?offset=N per chunk
+    // (optional X-Chunk-SHA256 header), then POST /uploads/{uploadId}/complete.
+    // After a failure, GET /uploads/{uploadId} and resume from receivedBytes.
+    @PostMapping("/uploads")
+    public ResponseEntity<DocumentUploadDto> initiateUpload(@RequestBody DocumentUploadRequestDto request) throws IOException {
+        return ResponseEntity.status(HttpStatus.CREATED).body(mitsDocumentUploadService.initiate(request));
+    }
+
+    @GetMapping("/uploads/{uploadId}")
+    public DocumentUploadDto getUploadStatus(@PathVariable String uploadId) {
+        return mitsDocumentUploadService.getStatus(uploadId);
+    }
+
+    @PutMapping(value = "/uploads/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public DocumentUploadDto uploadChunk(
+            @PathVariable String uploadId,
+            @RequestParam long offset,
+            @RequestHeader(value = "X-Chunk-SHA256", required = false) String chunkSha256,
+            InputStream chunk) throws IOException {
+        return mitsDocumentUploadService.appendChunk(uploadId, offset, chunk, chunkSha256);
+    }
+
+    @PostMapping("/uploads/{uploadId}/complete")
+    public ResponseEntity<MitsDocumentsDto> completeUpload(
+            @PathVariable String uploadId,
+            @RequestParam(required = false) String sha256) throws IOException {
+        MitsDocuments saved = mitsDocumentUploadService.complete(uploadId, sha256);
+        return ResponseEntity.status(HttpStatus.CREATED).body(mitsDocumentsMapper.toDto(saved));
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    public ResponseEntity<Void> abortUpload(@PathVariable String uploadId) throws IOException {
+        mitsDocumentUploadService.abort(uploadId);
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping
     public MitsDocumentsDto createMitsDocuments(@RequestBody MitsDocumentsDto mitsDocumentsDto) {
         MitsDocuments mitsDocuments = mitsDocumentsMapper.toEntity(mitsDocumentsDto);
@@ -44,12 +243,10 @@ public class MitsDocumentsController {
 
     @PutMapping("/{id}")
     public ResponseEntity<MitsDocumentsDto> updateMitsDocuments(@PathVariable Integer id, @RequestBody MitsDocumentsDto mitsDocumentsDto) {
-        return mitsDocumentsService.getMitsDocumentsById(id)
-                .map(existing -> {
-                    mitsDocumentsDto.setId(id);
-                    MitsDocuments updated = mitsDocumentsService.saveMitsDocuments(mitsDocumentsMapper.toEntity(mitsDocumentsDto));
-                    return ResponseEntity.ok(mitsDocumentsMapper.toDto(updated));
-                })
+        // Metadata only: the content is replaced through /upload, never through this endpoint
+        return mitsDocumentsService.updateMitsDocumentsMetadata(id, mitsDocumentsMapper.toEntity(mitsDocumentsDto))
+                .map(mitsDocumentsMapper::toDto)
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -62,4 +259,82 @@ public class MitsDocumentsController {
             return ResponseEntity.notFound().build();
         }
     }
+
+    /**
+     * Streams {@code size} bytes through {@code writer}, or the single range asked for. With
+     * If-Range, the range is only honoured when it names the current {@code etag}.
+     */
+    private static ResponseEntity<StreamingResponseBody> serveContent(
+            long size, MediaType contentType, String fileName, String etag, CacheControl cacheControl,
+            String rangeHeader, String ifRange, ContentWriter writer) {
+        long start = 0;
+        long end = size - 1;
+        boolean partial = false;
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(size);
+                    end = ranges.get(0).getRangeEnd(size);
+                    partial = true;
+                }
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                        .build();
+            }
+        }
+
+        long offset = start;
+        long length = size == 0 ? 0 : end - start + 1;
+        StreamingResponseBody body = out -> writer.write(offset, length, out);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(partial ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+                .contentType(contentType)
+                .contentLength(length)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(fileName, StandardCharsets.UTF_8)
+                        .build().toString());
+        if (partial) {
+            response.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+        if (etag != null) {
+            response.eTag(etag).cacheControl(cacheControl);
+        }
+        return response.body(body);
+    }
+
+    // Strong validator for /{id}/content: changes with the content and with the headers a
+    // metadata update can change (file name, type)
+    private static String representationTag(MitsDocumentSummary document) {
+        int headers = Objects.hash(document.getFileName(), document.getMimetype());
+        return "\"" + document.getContentHash() + "-" + Integer.toHexString(headers) + "\"";
+    }
+
+    // If-None-Match uses weak comparison, so W/"..." matches too
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static MediaType contentType(String mimetype) {
+        if (mimetype == null || mimetype.isBlank()) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+        try {
+            return MediaType.parseMediaType(mimetype);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ContentWriter {
+        void write(long offset, long length, OutputStream out) throws IOException;
+    }
 }
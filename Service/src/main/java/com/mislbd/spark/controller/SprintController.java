@@ -5,10 +5,18 @@ import com.mislbd.spark.entity.SprintInfo;
 import com.mislbd.spark.mapper.SprintInfoMapper;
 import com.mislbd.spark.service.SprintInfoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Clob;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
@@ -26,19 +34,35 @@ public class SprintController {
 
     @GetMapping
     public List<SprintInfoDto> getAllSprints() {
-        return sprintInfoService.getAllSprintInfos().stream()
-                .map(sprintInfoMapper::toDto)
+        return sprintInfoService.getAllSprintInfoSummaries().stream()
+                .map(sprintInfoMapper::toSummaryDto)
                 .collect(Collectors.toList());
     }
 
+    // Summary fields only; the comments and sprint outcome are linked (Link header) and streamed
     @GetMapping("/{id}")
     public ResponseEntity<SprintInfoDto> getSprintById(@PathVariable Integer id) {
-        return sprintInfoService.getSprintInfoById(id)
-                .map(sprintInfoMapper::toDto)
-                .map(ResponseEntity::ok)
+        String self = "/api/sprints/" + id;
+        return sprintInfoService.getSprintInfoSummary(id)
+                .map(sprintInfoMapper::toSummaryDto)
+                .map(dto -> ResponseEntity.ok()
+                        .header(HttpHeaders.LINK, "<" + self + "/comments>; rel=\"comments\"",
+                                "<" + self + "/sprint-outcome>; rel=\"sprint-outcome\"")
+                        .body(dto))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Full CLOB text, streamed; the list endpoint leaves these fields out
+    @GetMapping(value = "/{id}/comments", produces = MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8")
+    public ResponseEntity<StreamingResponseBody> getSprintComments(@PathVariable Integer id) {
+        return streamText(id, SprintInfo::getComments);
+    }
+
+    @GetMapping(value = "/{id}/sprint-outcome", produces = MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8")
+    public ResponseEntity<StreamingResponseBody> getSprintOutcome(@PathVariable Integer id) {
+        return streamText(id, SprintInfo::getSprintOutcome);
+    }
+
     @PostMapping
     public SprintInfoDto createSprint(@RequestBody SprintInfoDto sprintDto) {
         SprintInfo sprintInfo = sprintInfoMapper.toEntity(sprintDto);
@@ -59,11 +83,24 @@ public class SprintController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteSprint(@PathVariable Integer id) {
-        if (sprintInfoService.getSprintInfoById(id).isPresent()) {
+        if (sprintInfoService.existsSprintInfo(id)) {
             sprintInfoService.deleteSprintInfo(id);
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
         }
     }
+
+    private ResponseEntity<StreamingResponseBody> streamText(Integer id, Function<SprintInfo, Clob> column) {
+        if (!sprintInfoService.existsSprintInfo(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        StreamingResponseBody body = out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            sprintInfoService.writeSprintInfoText(id, column, writer);
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .body(body);
+    }
 }
@@ -5,10 +5,18 @@ import com.mislbd.spark.entity.SprintInfo;
 import com.mislbd.spark.mapper.SprintInfoMapper;
 import com.mislbd.spark.service.SprintInfoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Clob;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
@@ -25,17 +33,33 @@ public class SprintInfoController {
 
     @GetMapping
     public List<SprintInfoDto> getAllSprintInfos() {
-        return sprintInfoService.getAllSprintInfos().stream().map(sprintInfoMapper::toDto).collect(Collectors.toList());
+        return sprintInfoService.getAllSprintInfoSummaries().stream().map(sprintInfoMapper::toSummaryDto).collect(Collectors.toList());
     }
 
+    // Summary fields only; the comments and sprint outcome are linked (Link header) and streamed
     @GetMapping("/{id}")
     public ResponseEntity<SprintInfoDto> getSprintInfoById(@PathVariable Integer id) {
-        return sprintInfoService.getSprintInfoById(id)
-                .map(sprintInfoMapper::toDto)
-                .map(ResponseEntity::ok)
+        String self = "/api/sprint-infos/" + id;
+        return sprintInfoService.getSprintInfoSummary(id)
+                .map(sprintInfoMapper::toSummaryDto)
+                .map(dto -> ResponseEntity.ok()
+                        .header(HttpHeaders.LINK, "<" + self + "/comments>; rel=\"comments\"",
+                                "<" + self + "/sprint-outcome>; rel=\"sprint-outcome\"")
+                        .body(dto))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Full CLOB text, streamed; the list endpoint leaves these fields out
+    @GetMapping(value = "/{id}/comments", produces = MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8")
+    public ResponseEntity<StreamingResponseBody> getSprintInfoComments(@PathVariable Integer id) {
+        return streamText(id, SprintInfo::getComments);
+    }
+
+    @GetMapping(value = "/{id}/sprint-outcome", produces = MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8")
+    public ResponseEntity<StreamingResponseBody> getSprintInfoOutcome(@PathVariable Integer id) {
+        return streamText(id, SprintInfo::getSprintOutcome);
+    }
+
     @PostMapping
     public SprintInfoDto createSprintInfo(@RequestBody SprintInfoDto sprintInfoDto) {
         SprintInfo sprintInfo = sprintInfoMapper.toEntity(sprintInfoDto);
@@ -55,11 +79,24 @@ public class SprintInfoController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteSprintInfo(@PathVariable Integer id) {
-        if (sprintInfoService.getSprintInfoById(id).isPresent()) {
+        if (sprintInfoService.existsSprintInfo(id)) {
             sprintInfoService.deleteSprintInfo(id);
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
         }
     }
+
+    private ResponseEntity<StreamingResponseBody> streamText(Integer id, Function<SprintInfo, Clob> column) {
+        if (!sprintInfoService.existsSprintInfo(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        StreamingResponseBody body = out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            sprintInfoService.writeSprintInfoText(id, column, writer);
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .body(body);
+    }
 }
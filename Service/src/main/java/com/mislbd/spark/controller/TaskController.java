@@ -1,16 +1,36 @@
 package com.mislbd.spark.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.mislbd.spark.dto.BacklogTaskDto;
+import com.mislbd.spark.dto.CursorPageDto;
+import com.mislbd.spark.dto.PageResponseDto;
+import com.mislbd.spark.dto.TaskFacetSearchDto;
+import com.mislbd.spark.dto.TaskSearchCriteria;
 import com.mislbd.spark.entity.BacklogTask;
 import com.mislbd.spark.mapper.BacklogTaskMapper;
 import com.mislbd.spark.service.BacklogTaskService;
+import com.mislbd.spark.service.index.TaskFacet;
+import com.mislbd.spark.service.index.TaskFacetSearchResult;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @RestController
@@ -18,6 +38,7 @@ import java.util.stream.Collectors;
 public class TaskController {
     private final BacklogTaskService backlogTaskService;
     private final BacklogTaskMapper backlogTaskMapper;
+    private final ObjectMapper objectMapper;
 
     // Map task type string to ID
     private static final Map<String, Integer> TASK_TYPE_TO_ID = new HashMap<>();
@@ -41,10 +62,25 @@ public class TaskController {
         ID_TO_TASK_TYPE.put(6, "TESTING");
     }
 
+    // Sort keys accepted by /search, mapped to entity properties
+    private static final Map<String, String> SEARCH_SORT_KEYS = Map.of(
+            "id", "id",
+            "title", "title",
+            "status", "status",
+            "priority", "priority",
+            "deadline", "deadline",
+            "points", "points",
+            "createddate", "createddate",
+            "modifieddate", "modifieddate");
+
+    private static final int MAX_SEARCH_PAGE_SIZE = 500;
+    private static final int MAX_CURSOR_LIMIT = 1000;
+
     @Autowired
-    public TaskController(BacklogTaskService backlogTaskService, BacklogTaskMapper backlogTaskMapper) {
+    public TaskController(BacklogTaskService backlogTaskService, BacklogTaskMapper backlogTaskMapper, ObjectMapper objectMapper) {
         this.backlogTaskService = backlogTaskService;
         this.backlogTaskMapper = backlogTaskMapper;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
@@ -67,6 +103,35 @@ public class TaskController {
         return tasks;
     }
 
+    // Cursor mode: /api/tasks?limit=200[&after=<nextCursor>]
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPageDto<BacklogTaskDto>> getTasksPage(
+            @RequestParam(required = false) String after,
+            @RequestParam int limit) {
+        if (!isValidCursorLimit(limit)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(backlogTaskService.getBacklogTasksAfter(after, limit).map(this::toDto));
+    }
+
+    // Full backlog export as newline-delimited JSON, written row by row
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasks() {
+        ObjectWriter writer = objectMapper.writerFor(BacklogTaskDto.class);
+        StreamingResponseBody body = out -> backlogTaskService.exportBacklogTasks(task -> {
+            try {
+                out.write(writer.writeValueAsBytes(toDto(task)));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"backlog-tasks.ndjson\"")
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<BacklogTaskDto> getTaskById(@PathVariable("id") Integer id) {
         return backlogTaskService.getBacklogTaskById(id)
@@ -170,8 +235,7 @@ public class TaskController {
     // Additional endpoints for task management with filtering
     @GetMapping("/by-module/{moduleId}")
     public List<BacklogTaskDto> getTasksByModule(@PathVariable Integer moduleId) {
-        List<BacklogTaskDto> tasks = backlogTaskService.getAllBacklogTasks().stream()
-                .filter(task -> task.getProductModuleId() != null && task.getProductModuleId().equals(moduleId))
+        List<BacklogTaskDto> tasks = backlogTaskService.getBacklogTasksByModule(moduleId).stream()
                 .map(backlogTaskMapper::toDto)
                 .collect(Collectors.toList());
 
@@ -189,11 +253,20 @@ public class TaskController {
         return tasks;
     }
 
+    @GetMapping(value = "/by-module/{moduleId}", params = "limit")
+    public ResponseEntity<CursorPageDto<BacklogTaskDto>> getTasksByModulePage(
+            @PathVariable Integer moduleId,
+            @RequestParam(required = false) String after,
+            @RequestParam int limit) {
+        if (!isValidCursorLimit(limit)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(backlogTaskService.getBacklogTasksByModuleAfter(moduleId, after, limit).map(this::toDto));
+    }
 
     @GetMapping("/by-sprint/{sprintId}")
     public List<BacklogTaskDto> getTasksBySprint(@PathVariable Integer sprintId) {
-        List<BacklogTaskDto> tasks = backlogTaskService.getAllBacklogTasks().stream()
-                .filter(task -> task.getSprintid() != null && task.getSprintid().equals(sprintId))
+        List<BacklogTaskDto> tasks = backlogTaskService.getBacklogTasksBySprint(sprintId).stream()
                 .map(backlogTaskMapper::toDto)
                 .collect(Collectors.toList());
 
@@ -211,10 +284,20 @@ public class TaskController {
         return tasks;
     }
 
+    @GetMapping(value = "/by-sprint/{sprintId}", params = "limit")
+    public ResponseEntity<CursorPageDto<BacklogTaskDto>> getTasksBySprintPage(
+            @PathVariable Integer sprintId,
+            @RequestParam(required = false) String after,
+            @RequestParam int limit) {
+        if (!isValidCursorLimit(limit)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(backlogTaskService.getBacklogTasksBySprintAfter(sprintId, after, limit).map(this::toDto));
+    }
+
     @GetMapping("/by-assignee/{assigneeId}")
     public List<BacklogTaskDto> getTasksByAssignee(@PathVariable Integer assigneeId) {
-        List<BacklogTaskDto> tasks = backlogTaskService.getAllBacklogTasks().stream()
-                .filter(task -> task.getAssignedto() != null && task.getAssignedto().equals(assigneeId))
+        List<BacklogTaskDto> tasks = backlogTaskService.getBacklogTasksByAssignee(assigneeId).stream()
                 .map(backlogTaskMapper::toDto)
                 .collect(Collectors.toList());
 
@@ -232,38 +315,100 @@ public class TaskController {
         return tasks;
     }
 
+    @GetMapping(value = "/by-assignee/{assigneeId}", params = "limit")
+    public ResponseEntity<CursorPageDto<BacklogTaskDto>> getTasksByAssigneePage(
+            @PathVariable Integer assigneeId,
+            @RequestParam(required = false) String after,
+            @RequestParam int limit) {
+        if (!isValidCursorLimit(limit)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(backlogTaskService.getBacklogTasksByAssigneeAfter(assigneeId, after, limit).map(this::toDto));
+    }
+
+    // q: ranked full-text search over title and description (sort is ignored; cannot be combined with title)
     @GetMapping("/search")
-    public List<BacklogTaskDto> searchTasks(
+    public ResponseEntity<PageResponseDto<BacklogTaskDto>> searchTasks(
+            @RequestParam(required = false) String q,
             @RequestParam(required = false) String title,
+            @RequestParam(required = false) String trackingId,
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String priority,
             @RequestParam(required = false) Integer moduleId,
             @RequestParam(required = false) Integer sprintId,
-            @RequestParam(required = false) Integer assigneeId) {
+            @RequestParam(required = false) Integer assigneeId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction) {
+
+        String sortProperty = SEARCH_SORT_KEYS.get(sort);
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction).orElse(null);
+        boolean textSearch = q != null && !q.isBlank();
+        if (sortProperty == null || sortDirection == null || page < 0 || size < 1 || (textSearch && title != null)) {
+            return ResponseEntity.badRequest().build();
+        }
 
-        List<BacklogTaskDto> tasks = backlogTaskService.getAllBacklogTasks().stream()
-                .filter(task -> title == null || task.getTitle().toLowerCase().contains(title.toLowerCase()))
-                .filter(task -> status == null || status.equals(task.getStatus()))
-                .filter(task -> priority == null || priority.equals(task.getPriority()))
-                .filter(task -> moduleId == null || (task.getProductModuleId() != null && task.getProductModuleId().equals(moduleId)))
-                .filter(task -> sprintId == null || (task.getSprintid() != null && task.getSprintid().equals(sprintId)))
-                .filter(task -> assigneeId == null || (task.getAssignedto() != null && task.getAssignedto().equals(assigneeId)))
-                .map(backlogTaskMapper::toDto)
-                .collect(Collectors.toList());
+        TaskSearchCriteria criteria = TaskSearchCriteria.builder()
+                .title(title)
+                .trackingId(trackingId)
+                .status(status)
+                .priority(priority)
+                .moduleId(moduleId)
+                .sprintId(sprintId)
+                .assigneeId(assigneeId)
+                .build();
+        if (textSearch) {
+            return backlogTaskService.searchBacklogTasksByText(q, criteria, PageRequest.of(page, Math.min(size, MAX_SEARCH_PAGE_SIZE)))
+                    .map(result -> ResponseEntity.ok(PageResponseDto.of(result, this::toDto)))
+                    // Text index is still being built after startup
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+        }
+        // Secondary sort on id keeps page boundaries stable when the primary key has duplicates
+        Sort order = Sort.by(sortDirection, sortProperty).and(Sort.by(Sort.Direction.ASC, "id"));
+        PageRequest pageRequest = PageRequest.of(page, Math.min(size, MAX_SEARCH_PAGE_SIZE), order);
 
-        // Map for frontend compatibility
-        tasks.forEach(task -> {
-            // Map task type
-            if (task.getTasktypeid() != null) {
-                String typeString = ID_TO_TASK_TYPE.get(task.getTasktypeid());
-                if (typeString != null) {
-                    task.setTaskType(task.getTasktypeid());
-                }
-            }
-        });
+        Page<BacklogTask> result = backlogTaskService.searchBacklogTasks(criteria, pageRequest);
+        return ResponseEntity.ok(PageResponseDto.of(result, this::toDto));
+    }
 
-        return tasks;
+    // Facet filters: values within a facet are ORed, facets are ANDed; results are in id order.
+    // /search resolves its filters from the same index but keeps its single-valued filters and
+    // plain page response; this endpoint adds multi-valued filters and the per-facet counts.
+    @GetMapping("/faceted-search")
+    public ResponseEntity<TaskFacetSearchDto> facetedSearchTasks(
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) List<String> priority,
+            @RequestParam(required = false) List<Integer> taskType,
+            @RequestParam(required = false) List<Integer> client,
+            @RequestParam(required = false) List<Integer> moduleId,
+            @RequestParam(required = false) List<Integer> teamId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        if (page < 0 || size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<TaskFacet, List<String>> filters = new EnumMap<>(TaskFacet.class);
+        filters.put(TaskFacet.STATUS, status);
+        filters.put(TaskFacet.PRIORITY, priority);
+        filters.put(TaskFacet.TASK_TYPE, asStrings(taskType));
+        filters.put(TaskFacet.CLIENT, asStrings(client));
+        filters.put(TaskFacet.MODULE, asStrings(moduleId));
+        filters.put(TaskFacet.TEAM, asStrings(teamId));
+
+        Optional<TaskFacetSearchResult> result = backlogTaskService.facetedSearch(filters);
+        if (result.isEmpty()) {
+            // Facet index is still being built after startup
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        Page<BacklogTask> tasks = backlogTaskService.getBacklogTasksPage(result.get().getMatches(),
+                PageRequest.of(page, Math.min(size, MAX_SEARCH_PAGE_SIZE)));
+        return ResponseEntity.ok(TaskFacetSearchDto.builder()
+                .results(PageResponseDto.of(tasks, this::toDto))
+                .facets(result.get().getCounts())
+                .build());
     }
+
     // Get undone tasks for a team excluding those already in a sprint
     @GetMapping("/team/{teamId}/undone")
     public List<BacklogTaskDto> getUndoneTasksForTeam(
@@ -296,4 +441,20 @@ public class TaskController {
                 })
                 .collect(Collectors.toList());
     }
+
+    private static List<String> asStrings(List<Integer> values) {
+        return values != null ? values.stream().map(String::valueOf).toList() : null;
+    }
+
+    private boolean isValidCursorLimit(int limit) {
+        return limit >= 1 && limit <= MAX_CURSOR_LIMIT;
+    }
+
+    private BacklogTaskDto toDto(BacklogTask task) {
+        BacklogTaskDto dto = backlogTaskMapper.toDto(task);
+        if (dto.getTasktypeid() != null && ID_TO_TASK_TYPE.containsKey(dto.getTasktypeid())) {
+            dto.setTaskType(dto.getTasktypeid());
+        }
+        return dto;
+    }
 }
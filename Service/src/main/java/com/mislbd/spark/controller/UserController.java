@@ -5,7 +5,10 @@ import com.mislbd.spark.entity.types.Roles;
 import com.mislbd.spark.service.UserService;
 import com.mislbd.spark.service.TeamMembershipService;
 import com.mislbd.spark.dto.TeamDto;
+import com.mislbd.spark.dto.UserSearchResultDto;
+import com.mislbd.spark.dto.UserSuggestionDto;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,6 +18,8 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
+
+    private static final int MAX_SEARCH_LIMIT = 100;
     
     @Autowired
     private UserService userService;
@@ -27,6 +32,29 @@ public class UserController {
         return userService.getAllUsers();
     }
 
+    // Substring search over name, username, email and employee id
+    @GetMapping("/search")
+    public ResponseEntity<List<UserSearchResultDto>> searchUsers(@RequestParam String q,
+                                                                 @RequestParam(defaultValue = "20") int limit) {
+        if (q.isBlank() || limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(userService.searchUsers(q, limit));
+    }
+
+    // Compact active-user matches for autocomplete, by prefix of name, username or email
+    @GetMapping("/suggest")
+    public ResponseEntity<List<UserSuggestionDto>> suggestUsers(@RequestParam String prefix,
+                                                                @RequestParam(defaultValue = "10") int limit) {
+        if (prefix.isBlank() || limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        return userService.suggestUsers(prefix, limit)
+                .map(ResponseEntity::ok)
+                // User directory is still being built after startup
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<User> getUserById(@PathVariable Long id) {
         return userService.getUserById(id)
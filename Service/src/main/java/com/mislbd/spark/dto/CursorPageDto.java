@@ -0,0 +1,30 @@
+package com.mislbd.spark.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One slice of a keyset-paginated list. {@code nextCursor} is opaque to clients and is
+ * passed back as {@code after} to fetch the following slice; it is null on the last slice.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDto<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+    private int limit;
+
+    public <R> CursorPageDto<R> map(Function<T, R> mapper) {
+        return CursorPageDto.<R>builder()
+                .items(items.stream().map(mapper).toList())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .limit(limit)
+                .build();
+    }
+}
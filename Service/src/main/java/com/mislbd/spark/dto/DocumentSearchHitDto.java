@@ -0,0 +1,14 @@
+package com.mislbd.spark.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentSearchHitDto {
+    private Integer id;
+    private String fileName;
+    private float score;
+    private String snippet;
+}
@@ -0,0 +1,16 @@
+package com.mislbd.spark.dto;
+
+import lombok.*;
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentUploadDto {
+    private String uploadId;
+    private String fileName;
+    private Long totalSize;
+    private long receivedBytes;
+    private Instant expiresAt;
+}
@@ -0,0 +1,15 @@
+package com.mislbd.spark.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentUploadRequestDto {
+    private Integer mits;
+    private String description;
+    private String fileName;
+    private String mimetype;
+    private Long totalSize;
+}
@@ -14,6 +14,8 @@ public class MitsDocumentsDto {
     private byte[] document;
     private String fileName;
     private String mimetype;
+    private Long fileSize;
+    private String contentHash;
     private Instant createdAt;
     private Instant updatedAt;
 }
@@ -0,0 +1,32 @@
+package com.mislbd.spark.dto;
+
+import lombok.*;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Stable JSON shape for paged results (Spring's PageImpl is not meant to be serialized directly).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PageResponseDto<T> {
+    private List<T> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+
+    public static <E, T> PageResponseDto<T> of(Page<E> page, Function<E, T> mapper) {
+        return PageResponseDto.<T>builder()
+                .content(page.getContent().stream().map(mapper).toList())
+                .page(page.getNumber())
+                .size(page.getSize())
+                .totalElements(page.getTotalElements())
+                .totalPages(page.getTotalPages())
+                .build();
+    }
+}
@@ -35,6 +35,7 @@ public class SprintCapacitySummaryDto {
     
     // Sprint timeline
     private Integer sprintDurationDays;
+    // Working days from the team's calendar; holidays as recorded on the sprint
     private Integer workingDays;
     private Integer holidays;
 }
@@ -0,0 +1,18 @@
+package com.mislbd.spark.dto;
+
+import lombok.*;
+
+import java.util.Map;
+
+/**
+ * A page of faceted task search results with the task count per value of each facet
+ * (facet key -> value -> count).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskFacetSearchDto {
+    private PageResponseDto<BacklogTaskDto> results;
+    private Map<String, Map<String, Integer>> facets;
+}
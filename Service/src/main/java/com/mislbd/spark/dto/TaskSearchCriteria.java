@@ -0,0 +1,20 @@
+package com.mislbd.spark.dto;
+
+import lombok.*;
+
+/**
+ * Filter values for the backlog task search. Null fields are not applied.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class TaskSearchCriteria {
+    private String title;
+    private String trackingId;
+    private String status;
+    private String priority;
+    private Integer moduleId;
+    private Integer sprintId;
+    private Integer assigneeId;
+}
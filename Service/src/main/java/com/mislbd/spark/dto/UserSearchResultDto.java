@@ -0,0 +1,15 @@
+package com.mislbd.spark.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSearchResultDto {
+    private Long id;
+    private String name;
+    private String username;
+    private String email;
+    private String employeeId;
+}
@@ -0,0 +1,13 @@
+package com.mislbd.spark.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSuggestionDto {
+    private Long id;
+    private String name;
+    private String email;
+}
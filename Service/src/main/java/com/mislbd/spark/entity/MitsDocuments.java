@@ -24,6 +24,7 @@ public class MitsDocuments {
     private String description;
 
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     private Blob document;
 
     @Column(name = "file_name", length = 200)
@@ -32,6 +33,14 @@ public class MitsDocuments {
     @Column(length = 200)
     private String mimetype;
 
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    // SHA-256 of the content in the document store; null for rows whose content is still in DOCUMENT.
+    // Set once on insert: the hash is the download ETag and must not change with metadata updates.
+    @Column(name = "content_hash", length = 64, updatable = false)
+    private String contentHash;
+
     @Column(name = "createdat")
     private Instant createdAt;
 
@@ -30,7 +30,7 @@ public class SprintInfo {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sprint_seq")
-    @SequenceGenerator(name = "sprint_seq", sequenceName = "SPARK_SPRINT_INFO_SEQ", allocationSize = 1)
+    @SequenceGenerator(name = "sprint_seq", sequenceName = "SPARK_SPRINT_INFO_SEQ", allocationSize = 50)
     private Integer id;
 
     @Column(name = "sprint_name", length = 100, nullable = false)
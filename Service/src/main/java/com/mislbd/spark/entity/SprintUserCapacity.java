@@ -1,5 +1,6 @@
 package com.mislbd.spark.entity;
 
+import com.mislbd.spark.util.CapacityCalculator;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
@@ -28,7 +29,7 @@ public class SprintUserCapacity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sprint_user_capacity_seq")
-    @SequenceGenerator(name = "sprint_user_capacity_seq", sequenceName = "SPARK_SPRINT_USER_CAP_SEQ", allocationSize = 1)
+    @SequenceGenerator(name = "sprint_user_capacity_seq", sequenceName = "SPARK_SPRINT_USER_CAP_SEQ", allocationSize = 50)
     private Long id;
 
     @Column(name = "sprint_id", nullable = false)
@@ -101,31 +102,31 @@ public class SprintUserCapacity {
     }
 
     /**
-     * Calculate available working hours based on sprint duration, leave days, and capacity
+     * Calculate available working hours based on the sprint's working days (calendar days less
+     * weekends, holidays and team days off), leave days, and capacity
      */
-    public void calculateAvailableHours(int sprintDurationDays) {
-        if (sprintDurationDays <= 0 || leaveDays == null || dailyWorkingHours == null || userCapacityPercentage == null) {
+    public void calculateAvailableHours(int sprintWorkingDays) {
+        if (sprintWorkingDays <= 0 || leaveDays == null || dailyWorkingHours == null || userCapacityPercentage == null) {
             availableWorkingHours = BigDecimal.ZERO;
             totalWorkingHours = BigDecimal.ZERO;
             return;
         }
 
-        // Total potential hours = sprint days * daily hours
-        totalWorkingHours = BigDecimal.valueOf(sprintDurationDays).multiply(dailyWorkingHours);
-        
-        // Working days = sprint days - leave days
-        int workingDays = Math.max(0, sprintDurationDays - leaveDays);
-        
-        // Available hours = working days * daily hours * capacity percentage
-        BigDecimal baseHours = BigDecimal.valueOf(workingDays).multiply(dailyWorkingHours);
-        availableWorkingHours = baseHours.multiply(userCapacityPercentage.divide(BigDecimal.valueOf(100)));
-        
+        long dailyCentiHours = CapacityCalculator.toCenti(dailyWorkingHours);
+
+        // Total potential hours = sprint working days * daily hours
+        totalWorkingHours = CapacityCalculator.fromCenti(CapacityCalculator.totalCentiHours(sprintWorkingDays, dailyCentiHours));
+
+        // Available days = sprint working days - leave days
+        int availableDays = Math.max(0, sprintWorkingDays - leaveDays);
+
+        // Available hours = available days * daily hours * capacity percentage
+        long availableCentiHours = CapacityCalculator.availableCentiHours(
+                availableDays, dailyCentiHours, CapacityCalculator.toCenti(userCapacityPercentage));
+        availableWorkingHours = CapacityCalculator.fromCenti(availableCentiHours);
+
         // Recalculate remaining hours
-        if (allocatedHours != null) {
-            remainingHours = availableWorkingHours.subtract(allocatedHours);
-        } else {
-            remainingHours = availableWorkingHours;
-        }
+        remainingHours = CapacityCalculator.fromCenti(availableCentiHours - CapacityCalculator.toCenti(allocatedHours));
     }
 
     public boolean isOverAllocated() {
@@ -134,12 +135,10 @@ public class SprintUserCapacity {
     }
 
     public BigDecimal getUtilizationPercentage() {
-        if (availableWorkingHours == null || availableWorkingHours.compareTo(BigDecimal.ZERO) == 0) {
-            return BigDecimal.ZERO;
-        }
-        if (allocatedHours == null) {
+        if (availableWorkingHours == null || allocatedHours == null) {
             return BigDecimal.ZERO;
         }
-        return allocatedHours.multiply(BigDecimal.valueOf(100)).divide(availableWorkingHours, 2, BigDecimal.ROUND_HALF_UP);
+        return CapacityCalculator.fromCenti(CapacityCalculator.percentOf(
+                CapacityCalculator.toCenti(allocatedHours), CapacityCalculator.toCenti(availableWorkingHours)));
     }
 }
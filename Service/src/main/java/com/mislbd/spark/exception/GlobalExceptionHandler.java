@@ -31,6 +31,46 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidCursor(InvalidCursorException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", ex.getMessage());
+        error.put("error", "Invalid Cursor");
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(UploadNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleUploadNotFound(UploadNotFoundException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", ex.getMessage());
+        error.put("error", "Upload Not Found");
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    @ExceptionHandler(UploadOffsetMismatchException.class)
+    public ResponseEntity<Map<String, String>> handleUploadOffsetMismatch(UploadOffsetMismatchException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", ex.getMessage());
+        error.put("error", "Upload Offset Mismatch");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(InvalidUploadException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidUpload(InvalidUploadException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", ex.getMessage());
+        error.put("error", "Invalid Upload");
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(InvalidSprintDatesException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidSprintDates(InvalidSprintDatesException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", ex.getMessage());
+        error.put("error", "Invalid Sprint Dates");
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String,Object>> handleValidation(MethodArgumentNotValidException ex){
         Map<String,Object> body = base(HttpStatus.BAD_REQUEST, "Validation failed");
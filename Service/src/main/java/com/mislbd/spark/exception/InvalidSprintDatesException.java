@@ -0,0 +1,7 @@
+package com.mislbd.spark.exception;
+
+public class InvalidSprintDatesException extends RuntimeException {
+    public InvalidSprintDatesException(String message) {
+        super(message);
+    }
+}
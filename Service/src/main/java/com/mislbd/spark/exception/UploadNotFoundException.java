@@ -0,0 +1,7 @@
+package com.mislbd.spark.exception;
+
+public class UploadNotFoundException extends RuntimeException {
+    public UploadNotFoundException(String message) {
+        super(message);
+    }
+}
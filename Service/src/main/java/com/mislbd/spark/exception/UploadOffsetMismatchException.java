@@ -0,0 +1,7 @@
+package com.mislbd.spark.exception;
+
+public class UploadOffsetMismatchException extends RuntimeException {
+    public UploadOffsetMismatchException(String message) {
+        super(message);
+    }
+}
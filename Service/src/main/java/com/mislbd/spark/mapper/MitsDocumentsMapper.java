@@ -2,6 +2,7 @@ package com.mislbd.spark.mapper;
 
 import com.mislbd.spark.dto.MitsDocumentsDto;
 import com.mislbd.spark.entity.MitsDocuments;
+import com.mislbd.spark.repository.projection.MitsDocumentSummary;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
@@ -13,6 +14,11 @@ public interface MitsDocumentsMapper {
     @Mapping(target = "document", ignore = true) // handle BLOB separately
     MitsDocumentsDto toDto(MitsDocuments mitsDocuments);
 
+    @Mapping(target = "document", ignore = true)
+    MitsDocumentsDto toDto(MitsDocumentSummary summary);
+
     @Mapping(target = "document", ignore = true) // handle BLOB separately
+    @Mapping(target = "fileSize", ignore = true) // set from the uploaded content
+    @Mapping(target = "contentHash", ignore = true)
     MitsDocuments toEntity(MitsDocumentsDto mitsDocumentsDto);
 }
@@ -2,6 +2,7 @@ package com.mislbd.spark.mapper;
 
 import com.mislbd.spark.dto.SprintInfoDto;
 import com.mislbd.spark.entity.SprintInfo;
+import com.mislbd.spark.repository.projection.SprintInfoSummaryView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
@@ -26,6 +27,14 @@ public interface SprintInfoMapper {
     @Mapping(target = "createTime", source = "createTime", qualifiedByName = "instantToIsoString")
     SprintInfoDto toDto(SprintInfo sprintInfo);
 
+    // Summary projection -> DTO (list endpoints; comments and sprintOutcome stay null)
+    @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "sprintOutcome", ignore = true)
+    @Mapping(target = "fromDate", source = "fromDate", qualifiedByName = "localDateToString")
+    @Mapping(target = "toDate", source = "toDate", qualifiedByName = "localDateToString")
+    @Mapping(target = "createTime", source = "createTime", qualifiedByName = "instantToIsoString")
+    SprintInfoDto toSummaryDto(SprintInfoSummaryView summary);
+
     // DTO -> Entity
     @Mapping(target = "comments", ignore = true) // handled separately if needed
     @Mapping(target = "sprintOutcome", ignore = true) // handled separately if needed
@@ -1,16 +1,60 @@
 package com.mislbd.spark.repository;
 
 import com.mislbd.spark.entity.BacklogTask;
+import com.mislbd.spark.repository.projection.SprintAssigneeTaskStats;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface BacklogTaskRepository extends JpaRepository<BacklogTask, Integer> {
+public interface BacklogTaskRepository extends JpaRepository<BacklogTask, Integer>, JpaSpecificationExecutor<BacklogTask> {
     // Undone tasks by team (status NOT in DONE/CANCELLED)
     @Query("SELECT t FROM BacklogTask t WHERE t.teamId = :teamId AND (t.status IS NULL OR UPPER(t.status) NOT IN ('DONE','COMPLETED','CANCELLED'))")
     List<BacklogTask> findUndoneTasksByTeamExcludingSprint(@Param("teamId") Integer teamId);
+
+    // Sprint progress per assignee in one round trip; status matching mirrors the dashboard's "DONE" rule
+    @Query("""
+        SELECT t.assignedto AS assignedTo,
+               COUNT(t) AS tasksTotal,
+               SUM(CASE WHEN UPPER(t.status) = 'DONE' THEN 1 ELSE 0 END) AS tasksDone,
+               COALESCE(SUM(t.points), 0) AS pointsTotal,
+               COALESCE(SUM(CASE WHEN UPPER(t.status) = 'DONE' THEN t.points ELSE 0 END), 0) AS pointsDone
+        FROM BacklogTask t
+        WHERE t.sprintid = :sprintId
+        GROUP BY t.assignedto
+        """)
+    List<SprintAssigneeTaskStats> aggregateSprintTasksByAssignee(@Param("sprintId") Integer sprintId);
+
+    // Database fallback for the by-sprint/module/assignee lookups while the in-memory indexes are being built
+    List<BacklogTask> findBySprintidOrderByIdAsc(Integer sprintid);
+
+    List<BacklogTask> findByProductModuleIdOrderByIdAsc(Integer productModuleId);
+
+    List<BacklogTask> findByAssignedtoOrderByIdAsc(Integer assignedto);
+
+    // Keyset pagination: WHERE id > :afterId ORDER BY id, served from the primary key index
+    List<BacklogTask> findByIdGreaterThanOrderByIdAsc(Integer afterId, Limit limit);
+
+    List<BacklogTask> findByProductModuleIdAndIdGreaterThanOrderByIdAsc(Integer productModuleId, Integer afterId, Limit limit);
+
+    List<BacklogTask> findBySprintidAndIdGreaterThanOrderByIdAsc(Integer sprintid, Integer afterId, Limit limit);
+
+    List<BacklogTask> findByAssignedtoAndIdGreaterThanOrderByIdAsc(Integer assignedto, Integer afterId, Limit limit);
+
+    // Forward-only cursor over the whole backlog for exports; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM BacklogTask t ORDER BY t.id")
+    Stream<BacklogTask> streamAllOrderById();
 }
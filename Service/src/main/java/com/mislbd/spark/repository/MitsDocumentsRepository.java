@@ -1,8 +1,31 @@
 package com.mislbd.spark.repository;
 
 import com.mislbd.spark.entity.MitsDocuments;
+import com.mislbd.spark.repository.projection.MitsDocumentSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface MitsDocumentsRepository extends JpaRepository<MitsDocuments, Integer> {}
+public interface MitsDocumentsRepository extends JpaRepository<MitsDocuments, Integer> {
+
+    String SUMMARY_SELECT = "SELECT d.id AS id, d.mits AS mits, d.description AS description, d.fileName AS fileName, " +
+            "d.mimetype AS mimetype, d.fileSize AS fileSize, d.contentHash AS contentHash, " +
+            "d.createdAt AS createdAt, d.updatedAt AS updatedAt " +
+            "FROM MitsDocuments d";
+
+    @Query(SUMMARY_SELECT + " ORDER BY d.id")
+    List<MitsDocumentSummary> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + " WHERE d.id = :id")
+    Optional<MitsDocumentSummary> findSummaryById(@Param("id") Integer id);
+
+    long countByContentHash(String contentHash);
+
+    @Query("SELECT d.fileSize FROM MitsDocuments d WHERE d.contentHash = :contentHash")
+    List<Long> findFileSizesByContentHash(@Param("contentHash") String contentHash);
+}
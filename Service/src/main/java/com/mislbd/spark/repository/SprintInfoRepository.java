@@ -1,6 +1,7 @@
 package com.mislbd.spark.repository;
 
 import com.mislbd.spark.entity.SprintInfo;
+import com.mislbd.spark.repository.projection.SprintInfoSummaryView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Sprint Information Repository - Industry Standard Implementation
@@ -28,6 +30,26 @@ public interface SprintInfoRepository extends JpaRepository<SprintInfo, Integer>
      * @return List of sprints with specified status
      */
     List<SprintInfo> findByStatus(Integer status);
+
+    String SUMMARY_SELECT = "SELECT s.id AS id, s.sprintName AS sprintName, s.noOfHolidays AS noOfHolidays, s.fromDate AS fromDate, " +
+           "s.toDate AS toDate, s.tramId AS tramId, s.sprintPoint AS sprintPoint, s.sprintArchive AS sprintArchive, " +
+           "s.detailsRemark AS detailsRemark, s.createBy AS createBy, s.createTime AS createTime, s.status AS status " +
+           "FROM SprintInfo s";
+
+    /**
+     * Find all sprints without their CLOB columns
+     * @return List of sprint summaries ordered by ID
+     */
+    @Query(SUMMARY_SELECT + " ORDER BY s.id")
+    List<SprintInfoSummaryView> findAllSummaries();
+
+    /**
+     * Find one sprint without its CLOB columns
+     * @param id Sprint ID
+     * @return Sprint summary, if found
+     */
+    @Query(SUMMARY_SELECT + " WHERE s.id = :id")
+    Optional<SprintInfoSummaryView> findSummaryById(@Param("id") Integer id);
     
     /**
      * Find sprints by team ID
@@ -1,7 +1,10 @@
 package com.mislbd.spark.repository;
 
+import com.mislbd.spark.entity.Team;
 import com.mislbd.spark.entity.TeamMembership;
 import com.mislbd.spark.entity.TeamMembershipId;
+import com.mislbd.spark.repository.projection.TeamMemberView;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,11 +15,21 @@ import java.util.List;
 @Repository
 public interface TeamMembershipRepository extends JpaRepository<TeamMembership, TeamMembershipId> {
     
+    @EntityGraph(attributePaths = {"user", "team"})
     @Query("SELECT tm FROM TeamMembership tm WHERE tm.team.id = :teamId")
     List<TeamMembership> findByTeamId(@Param("teamId") Integer teamId);
     
+    @EntityGraph(attributePaths = {"user", "team"})
     @Query("SELECT tm FROM TeamMembership tm WHERE tm.user.id = :userId")
     List<TeamMembership> findByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT u.id AS userId, tm.id.teamId AS teamId, u.firstName AS firstName, u.middleName AS middleName, " +
+           "u.lastName AS lastName, u.email AS email, tm.teamRole AS teamRole " +
+           "FROM TeamMembership tm JOIN tm.user u WHERE tm.id.teamId = :teamId ORDER BY u.id")
+    List<TeamMemberView> findMemberViewsByTeamId(@Param("teamId") Integer teamId);
+
+    @Query("SELECT t FROM TeamMembership tm JOIN tm.team t WHERE tm.id.userId = :userId ORDER BY t.id")
+    List<Team> findTeamsByUserId(@Param("userId") Long userId);
     
     @Query("SELECT COUNT(tm) FROM TeamMembership tm WHERE tm.team.id = :teamId")
     Long countByTeamId(@Param("teamId") Integer teamId);
@@ -0,0 +1,18 @@
+package com.mislbd.spark.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * Document metadata without the BLOB column, used for listings and download headers.
+ */
+public interface MitsDocumentSummary {
+    Integer getId();
+    Integer getMits();
+    String getDescription();
+    String getFileName();
+    String getMimetype();
+    Long getFileSize();
+    String getContentHash();
+    Instant getCreatedAt();
+    Instant getUpdatedAt();
+}
@@ -0,0 +1,12 @@
+package com.mislbd.spark.repository.projection;
+
+/**
+ * Per-assignee task and story point totals for one sprint, produced by a GROUP BY query.
+ */
+public interface SprintAssigneeTaskStats {
+    Integer getAssignedTo();
+    Long getTasksTotal();
+    Long getTasksDone();
+    Long getPointsTotal();
+    Long getPointsDone();
+}
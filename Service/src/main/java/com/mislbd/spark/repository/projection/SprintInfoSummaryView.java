@@ -0,0 +1,22 @@
+package com.mislbd.spark.repository.projection;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Sprint row without the COMMENTS and SPRINT_OUTCOME CLOBs, for list endpoints.
+ */
+public interface SprintInfoSummaryView {
+    Integer getId();
+    String getSprintName();
+    Integer getNoOfHolidays();
+    LocalDate getFromDate();
+    LocalDate getToDate();
+    Integer getTramId();
+    Integer getSprintPoint();
+    Integer getSprintArchive();
+    String getDetailsRemark();
+    String getCreateBy();
+    Instant getCreateTime();
+    Integer getStatus();
+}
@@ -0,0 +1,14 @@
+package com.mislbd.spark.repository.projection;
+
+/**
+ * Team member row (membership joined with its user) read in a single query for member lists.
+ */
+public interface TeamMemberView {
+    Long getUserId();
+    Integer getTeamId();
+    String getFirstName();
+    String getMiddleName();
+    String getLastName();
+    String getEmail();
+    String getTeamRole();
+}
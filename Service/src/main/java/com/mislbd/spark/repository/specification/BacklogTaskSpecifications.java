@@ -0,0 +1,71 @@
+package com.mislbd.spark.repository.specification;
+
+import com.mislbd.spark.dto.TaskSearchCriteria;
+import com.mislbd.spark.entity.BacklogTask;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JPA Specifications for backlog task search. All filters are combined into a single
+ * WHERE clause so the database does the filtering instead of the service layer.
+ */
+public final class BacklogTaskSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private BacklogTaskSpecifications() {
+    }
+
+    public static Specification<BacklogTask> matching(TaskSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (hasText(criteria.getTitle())) {
+                String pattern = "%" + escapeLike(criteria.getTitle().toLowerCase()) + "%";
+                predicates.add(cb.like(cb.lower(root.get("title")), pattern, LIKE_ESCAPE));
+            }
+            if (hasText(criteria.getTrackingId())) {
+                String pattern = "%" + escapeLike(criteria.getTrackingId().toLowerCase()) + "%";
+                predicates.add(cb.like(cb.lower(root.get("sptrackingId")), pattern, LIKE_ESCAPE));
+            }
+            if (criteria.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), criteria.getStatus()));
+            }
+            if (criteria.getPriority() != null) {
+                predicates.add(cb.equal(root.get("priority"), criteria.getPriority()));
+            }
+            if (criteria.getModuleId() != null) {
+                predicates.add(cb.equal(root.get("productModuleId"), criteria.getModuleId()));
+            }
+            if (criteria.getSprintId() != null) {
+                predicates.add(cb.equal(root.get("sprintid"), criteria.getSprintId()));
+            }
+            if (criteria.getAssigneeId() != null) {
+                predicates.add(cb.equal(root.get("assignedto"), criteria.getAssigneeId()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    public static Specification<BacklogTask> idIn(Collection<Integer> ids) {
+        return (root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                sb.append(LIKE_ESCAPE);
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
@@ -1,46 +1,330 @@
 package com.mislbd.spark.service;
 
+import com.mislbd.spark.dto.CursorPageDto;
+import com.mislbd.spark.dto.TaskSearchCriteria;
 import com.mislbd.spark.entity.BacklogTask;
 import com.mislbd.spark.repository.BacklogTaskRepository;
+import com.mislbd.spark.repository.projection.SprintAssigneeTaskStats;
+import com.mislbd.spark.repository.specification.BacklogTaskSpecifications;
+import com.mislbd.spark.service.index.BacklogTaskFacetIndex;
+import com.mislbd.spark.service.index.BacklogTaskFieldIndex;
+import com.mislbd.spark.service.index.BacklogTaskIndexes;
+import com.mislbd.spark.service.index.BacklogTaskTextIndex;
+import com.mislbd.spark.service.index.BacklogTaskTrigramIndex;
+import com.mislbd.spark.service.index.TaskFacet;
+import com.mislbd.spark.service.index.TaskFacetSearchResult;
+import jakarta.persistence.EntityManager;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class BacklogTaskService {
+    private static final int EXPORT_CLEAR_INTERVAL = 1000;
+    // Oracle allows at most 1000 expressions in an IN list
+    private static final int FETCH_BY_ID_CHUNK_SIZE = 1000;
+    private static final Set<String> DONE_STATUSES = Set.of("DONE", "COMPLETED", "CANCELLED");
+
     private final BacklogTaskRepository backlogTaskRepository;
+    private final EntityManager entityManager;
+    private final BacklogTaskIndexes taskIndexes;
+    private final BacklogTaskFieldIndex fieldIndex;
+    private final BacklogTaskFacetIndex facetIndex;
+    private final BacklogTaskTextIndex textIndex;
+    private final BacklogTaskTrigramIndex trigramIndex;
+    private final TransactionTemplate indexRebuildTransaction;
 
     @Autowired
-    public BacklogTaskService(BacklogTaskRepository backlogTaskRepository) {
+    public BacklogTaskService(BacklogTaskRepository backlogTaskRepository, EntityManager entityManager,
+                              BacklogTaskIndexes taskIndexes, BacklogTaskFieldIndex fieldIndex,
+                              BacklogTaskFacetIndex facetIndex, BacklogTaskTextIndex textIndex,
+                              BacklogTaskTrigramIndex trigramIndex, PlatformTransactionManager transactionManager) {
         this.backlogTaskRepository = backlogTaskRepository;
+        this.entityManager = entityManager;
+        this.taskIndexes = taskIndexes;
+        this.fieldIndex = fieldIndex;
+        this.facetIndex = facetIndex;
+        this.textIndex = textIndex;
+        this.trigramIndex = trigramIndex;
+        this.indexRebuildTransaction = new TransactionTemplate(transactionManager);
+        this.indexRebuildTransaction.setReadOnly(true);
     }
 
     public List<BacklogTask> getAllBacklogTasks() {
         return backlogTaskRepository.findAll();
     }
 
+    /**
+     * Streams every task in id order to the sink, one row at a time. Rows are detached as soon as
+     * they are handed over and the persistence context is cleared periodically, so memory stays
+     * flat regardless of backlog size.
+     */
+    @Transactional(readOnly = true)
+    public void exportBacklogTasks(Consumer<BacklogTask> sink) {
+        try (Stream<BacklogTask> tasks = backlogTaskRepository.streamAllOrderById()) {
+            int exported = 0;
+            for (BacklogTask task : (Iterable<BacklogTask>) tasks::iterator) {
+                sink.accept(task);
+                entityManager.detach(task);
+                if (++exported % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the in-memory task indexes from a single pass over the backlog once the application
+     * has started. Lookups use the database until this has finished.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildTaskIndexes() {
+        taskIndexes.rebuild(this::exportBacklogTasks);
+    }
+
+    /**
+     * Runs the index build again once the backoff after a failed build has passed; checking is
+     * cheap and touches the database only when a retry is due.
+     */
+    @Scheduled(fixedDelayString = "${spark.tasks.index-retry-check-interval}")
+    public void retryTaskIndexRebuild() {
+        if (taskIndexes.isRetryDue()) {
+            indexRebuildTransaction.executeWithoutResult(status -> taskIndexes.rebuild(this::exportBacklogTasks));
+        }
+    }
+
+    public List<BacklogTask> getBacklogTasksBySprint(Integer sprintId) {
+        return taskIndexes.isReady()
+                ? findAllByIds(fieldIndex.bySprint(sprintId))
+                : backlogTaskRepository.findBySprintidOrderByIdAsc(sprintId);
+    }
+
+    public List<BacklogTask> getBacklogTasksByModule(Integer moduleId) {
+        return taskIndexes.isReady()
+                ? findAllByIds(fieldIndex.byModule(moduleId))
+                : backlogTaskRepository.findByProductModuleIdOrderByIdAsc(moduleId);
+    }
+
+    public List<BacklogTask> getBacklogTasksByAssignee(Integer assigneeId) {
+        return taskIndexes.isReady()
+                ? findAllByIds(fieldIndex.byAssignee(assigneeId))
+                : backlogTaskRepository.findByAssignedtoOrderByIdAsc(assigneeId);
+    }
+
+    /**
+     * Matching task ids and per-facet counts for the selected facet values, answered from the
+     * facet index; empty while the indexes are still being built.
+     */
+    public Optional<TaskFacetSearchResult> facetedSearch(Map<TaskFacet, List<String>> filters) {
+        return taskIndexes.isReady() ? Optional.of(facetIndex.search(filters)) : Optional.empty();
+    }
+
+    /**
+     * One page of the given task ids in id order; only the rows on the page are loaded.
+     */
+    public Page<BacklogTask> getBacklogTasksPage(RoaringBitmap ids, Pageable pageable) {
+        return page(ids, pageable, false);
+    }
+
+    /**
+     * Tasks whose title or description matches every term of {@code query}, most relevant first,
+     * restricted by the other criteria (the title criterion is not applied). Empty while the
+     * indexes are still being built.
+     */
+    public Optional<Page<BacklogTask>> searchBacklogTasksByText(String query, TaskSearchCriteria criteria, Pageable pageable) {
+        if (!taskIndexes.isReady()) {
+            return Optional.empty();
+        }
+        int[] ranked = textIndex.search(query, indexFilter(criteria));
+        int from = (int) Math.min(pageable.getOffset(), ranked.length);
+        int[] pageIds = Arrays.copyOfRange(ranked, from, Math.min(ranked.length, from + pageable.getPageSize()));
+        return Optional.of(new PageImpl<>(findAllByIds(pageIds), pageable, ranked.length));
+    }
+
+    /**
+     * Filters are resolved to task ids from the facet, field and trigram indexes once they are
+     * built. An id-ordered page is then read straight off the bitmap; for other sort keys the
+     * query filters on the ids when there are at most {@value #FETCH_BY_ID_CHUNK_SIZE} of them,
+     * and otherwise falls back to the SQL predicates.
+     */
+    public Page<BacklogTask> searchBacklogTasks(TaskSearchCriteria criteria, Pageable pageable) {
+        if (taskIndexes.isReady()) {
+            RoaringBitmap matches = indexFilter(criteria);
+            if (hasText(criteria.getTitle())) {
+                matches = and(matches, trigramIndex.titlesContaining(criteria.getTitle()));
+            }
+            if (matches != null) {
+                Sort.Order first = pageable.getSort().stream().findFirst().orElse(null);
+                if (first != null && first.getProperty().equals("id")) {
+                    return page(matches, pageable, first.isDescending());
+                }
+                if (matches.getCardinality() <= FETCH_BY_ID_CHUNK_SIZE) {
+                    List<Integer> ids = Arrays.stream(matches.toArray()).boxed().toList();
+                    return backlogTaskRepository.findAll(BacklogTaskSpecifications.idIn(ids), pageable);
+                }
+            }
+        }
+        return backlogTaskRepository.findAll(BacklogTaskSpecifications.matching(criteria), pageable);
+    }
+
+    public CursorPageDto<BacklogTask> getBacklogTasksAfter(String cursor, int limit) {
+        return keysetPage(cursor, limit, backlogTaskRepository::findByIdGreaterThanOrderByIdAsc);
+    }
+
+    public CursorPageDto<BacklogTask> getBacklogTasksByModuleAfter(Integer moduleId, String cursor, int limit) {
+        return keysetPage(cursor, limit, (afterId, max) ->
+                backlogTaskRepository.findByProductModuleIdAndIdGreaterThanOrderByIdAsc(moduleId, afterId, max));
+    }
+
+    public CursorPageDto<BacklogTask> getBacklogTasksBySprintAfter(Integer sprintId, String cursor, int limit) {
+        return keysetPage(cursor, limit, (afterId, max) ->
+                backlogTaskRepository.findBySprintidAndIdGreaterThanOrderByIdAsc(sprintId, afterId, max));
+    }
+
+    public CursorPageDto<BacklogTask> getBacklogTasksByAssigneeAfter(Integer assigneeId, String cursor, int limit) {
+        return keysetPage(cursor, limit, (afterId, max) ->
+                backlogTaskRepository.findByAssignedtoAndIdGreaterThanOrderByIdAsc(assigneeId, afterId, max));
+    }
+
     public Optional<BacklogTask> getBacklogTaskById(Integer id) {
         return backlogTaskRepository.findById(id);
     }
 
     public BacklogTask saveBacklogTask(BacklogTask backlogTask) {
-        return backlogTaskRepository.save(backlogTask);
+        BacklogTask saved = backlogTaskRepository.save(backlogTask);
+        taskIndexes.index(saved);
+        return saved;
     }
 
     public void deleteBacklogTask(Integer id) {
         backlogTaskRepository.deleteById(id);
+        taskIndexes.remove(id);
     }
 
     public List<BacklogTask> getUndoneTasksByTeam(Integer teamId) {
-        return backlogTaskRepository.findUndoneTasksByTeamExcludingSprint(teamId);
+        if (!taskIndexes.isReady()) {
+            return backlogTaskRepository.findUndoneTasksByTeamExcludingSprint(teamId);
+        }
+        // Same rule as findUndoneTasksByTeamExcludingSprint
+        return findAllByIds(fieldIndex.byTeam(teamId)).stream()
+                .filter(task -> task.getStatus() == null || !DONE_STATUSES.contains(task.getStatus().toUpperCase()))
+                .collect(Collectors.toList());
+    }
+
+    public List<SprintAssigneeTaskStats> getSprintTaskStatsByAssignee(Integer sprintId) {
+        return backlogTaskRepository.aggregateSprintTasksByAssignee(sprintId);
     }
 
     public List<BacklogTask> assignTasksToSprint(Integer sprintId, List<Integer> taskIds) {
         List<BacklogTask> tasks = backlogTaskRepository.findAllById(taskIds);
         tasks.forEach(t -> t.setSprintid(sprintId));
-        return backlogTaskRepository.saveAll(tasks);
+        List<BacklogTask> saved = backlogTaskRepository.saveAll(tasks);
+        saved.forEach(taskIndexes::index);
+        return saved;
+    }
+
+    // Ids allowed by the criteria that the indexes can answer; null when none of them is set
+    private RoaringBitmap indexFilter(TaskSearchCriteria criteria) {
+        Map<TaskFacet, List<String>> facets = new EnumMap<>(TaskFacet.class);
+        if (criteria.getStatus() != null) {
+            facets.put(TaskFacet.STATUS, List.of(criteria.getStatus()));
+        }
+        if (criteria.getPriority() != null) {
+            facets.put(TaskFacet.PRIORITY, List.of(criteria.getPriority()));
+        }
+        if (criteria.getModuleId() != null) {
+            facets.put(TaskFacet.MODULE, List.of(String.valueOf(criteria.getModuleId())));
+        }
+        RoaringBitmap allowed = facets.isEmpty() ? null : facetIndex.matching(facets);
+        if (criteria.getSprintId() != null) {
+            allowed = and(allowed, RoaringBitmap.bitmapOf(fieldIndex.bySprint(criteria.getSprintId())));
+        }
+        if (criteria.getAssigneeId() != null) {
+            allowed = and(allowed, RoaringBitmap.bitmapOf(fieldIndex.byAssignee(criteria.getAssigneeId())));
+        }
+        if (hasText(criteria.getTrackingId())) {
+            allowed = and(allowed, trigramIndex.trackingIdsContaining(criteria.getTrackingId()));
+        }
+        return allowed;
+    }
+
+    // One page of ids in ascending or descending id order; only the rows on the page are loaded
+    private Page<BacklogTask> page(RoaringBitmap ids, Pageable pageable, boolean descending) {
+        int total = ids.getCardinality();
+        int offset = (int) Math.min(pageable.getOffset(), total);
+        int[] pageIds = new int[Math.min(pageable.getPageSize(), total - offset)];
+        for (int i = 0; i < pageIds.length; i++) {
+            int rank = offset + i;
+            pageIds[i] = ids.select(descending ? total - 1 - rank : rank);
+        }
+        return new PageImpl<>(findAllByIds(pageIds), pageable, total);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    private static RoaringBitmap and(RoaringBitmap allowed, RoaringBitmap ids) {
+        return allowed == null ? ids : RoaringBitmap.and(allowed, ids);
+    }
+
+    // Loads the rows for ids resolved from an index, in the order given
+    private List<BacklogTask> findAllByIds(int[] ids) {
+        Map<Integer, BacklogTask> byId = new HashMap<>(ids.length * 2);
+        for (int from = 0; from < ids.length; from += FETCH_BY_ID_CHUNK_SIZE) {
+            int[] chunk = Arrays.copyOfRange(ids, from, Math.min(ids.length, from + FETCH_BY_ID_CHUNK_SIZE));
+            backlogTaskRepository.findAllById(Arrays.stream(chunk).boxed().toList())
+                    .forEach(task -> byId.put(task.getId(), task));
+        }
+        List<BacklogTask> tasks = new ArrayList<>(byId.size());
+        for (int id : ids) {
+            BacklogTask task = byId.get(id);
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    // Fetches one extra row to learn whether another page exists without a COUNT query
+    private CursorPageDto<BacklogTask> keysetPage(String cursor, int limit,
+                                                  BiFunction<Integer, Limit, List<BacklogTask>> query) {
+        List<BacklogTask> rows = query.apply(KeysetCursor.decode(cursor), Limit.of(limit + 1));
+        boolean hasMore = rows.size() > limit;
+        List<BacklogTask> items = hasMore ? rows.subList(0, limit) : rows;
+        return CursorPageDto.<BacklogTask>builder()
+                .items(items)
+                .nextCursor(hasMore ? KeysetCursor.encode(items.get(items.size() - 1).getId()) : null)
+                .hasMore(hasMore)
+                .limit(limit)
+                .build();
     }
 }
@@ -0,0 +1,128 @@
+package com.mislbd.spark.service;
+
+import com.mislbd.spark.service.storage.DocumentContentStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Optional;
+
+/**
+ * Generates a PNG thumbnail (images) and a short text excerpt (text, HTML, PDF) for each saved
+ * document, off the request thread. Previews are stored as derivatives of the content hash, so a
+ * content shared by many documents is processed once.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DocumentPreviewService {
+
+    static final String THUMBNAIL = "thumb.png";
+    static final String EXCERPT = "excerpt.txt";
+
+    private static final int THUMBNAIL_MAX_SIZE = 256;
+    private static final int EXCERPT_MAX_CHARS = 500;
+
+    private final DocumentContentStore contentStore;
+    private final DocumentTextExtractor textExtractor;
+
+    @Async("documentPreviewExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDocumentSaved(MitsDocumentSavedEvent event) {
+        try {
+            generatePreviews(event.getContentHash(), event.getMimetype());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Preview generation failed for document {}", event.getDocumentId(), e);
+        }
+    }
+
+    public Optional<byte[]> getThumbnail(String contentHash) throws IOException {
+        return contentStore.readDerivative(contentHash, THUMBNAIL);
+    }
+
+    public Optional<String> getExcerpt(String contentHash) throws IOException {
+        return contentStore.readDerivative(contentHash, EXCERPT).map(bytes -> new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    void generatePreviews(String contentHash, String mimetype) throws IOException {
+        if (contentHash == null || !contentStore.exists(contentHash)) {
+            return;
+        }
+        if (mimetype != null && mimetype.toLowerCase().startsWith("image/")
+                && contentStore.readDerivative(contentHash, THUMBNAIL).isEmpty()) {
+            try (InputStream in = contentStore.open(contentHash)) {
+                Optional<byte[]> thumbnail = thumbnail(in);
+                if (thumbnail.isPresent()) {
+                    contentStore.storeDerivative(contentHash, THUMBNAIL, thumbnail.get());
+                }
+            }
+        }
+        if (textExtractor.supports(mimetype) && contentStore.readDerivative(contentHash, EXCERPT).isEmpty()) {
+            try (InputStream in = contentStore.open(contentHash)) {
+                Optional<String> excerpt = textExtractor.extractExcerpt(in, mimetype, EXCERPT_MAX_CHARS);
+                if (excerpt.isPresent()) {
+                    contentStore.storeDerivative(contentHash, EXCERPT, excerpt.get().getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+
+    /**
+     * Decodes the image with source subsampling, so a large photo is never fully decoded in memory,
+     * then scales it to fit {@link #THUMBNAIL_MAX_SIZE}.
+     */
+    private static Optional<byte[]> thumbnail(InputStream content) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            if (input == null) {
+                return Optional.empty();
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return Optional.empty();
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int subsampling = Math.max(1, Math.max(width, height) / (THUMBNAIL_MAX_SIZE * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage source = reader.read(0, param);
+
+                double scale = Math.min(1.0, (double) THUMBNAIL_MAX_SIZE / Math.max(source.getWidth(), source.getHeight()));
+                int thumbWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+                int thumbHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+                BufferedImage thumb = new BufferedImage(thumbWidth, thumbHeight, BufferedImage.TYPE_INT_ARGB);
+                Graphics2D graphics = thumb.createGraphics();
+                try {
+                    graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                    graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                    graphics.drawImage(source, 0, 0, thumbWidth, thumbHeight, null);
+                } finally {
+                    graphics.dispose();
+                }
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                ImageIO.write(thumb, "png", out);
+                return Optional.of(out.toByteArray());
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
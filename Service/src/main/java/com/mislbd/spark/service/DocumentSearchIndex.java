@@ -0,0 +1,281 @@
+package com.mislbd.spark.service;
+
+import com.mislbd.spark.dto.DocumentSearchHitDto;
+import com.mislbd.spark.repository.MitsDocumentsRepository;
+import com.mislbd.spark.repository.projection.MitsDocumentSummary;
+import com.mislbd.spark.service.storage.DocumentContentStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.highlight.Highlighter;
+import org.apache.lucene.search.highlight.InvalidTokenOffsetsException;
+import org.apache.lucene.search.highlight.QueryScorer;
+import org.apache.lucene.search.highlight.SimpleFragmenter;
+import org.apache.lucene.search.highlight.SimpleHTMLEncoder;
+import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.Bits;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * On-disk Lucene index over the extracted text of MITS documents held in the content store.
+ * Entries are added or replaced when a document's content is saved and removed when the document
+ * is deleted, after the transaction commits and off the request thread. Searches never touch the
+ * database or the stored files.
+ *
+ * <p>At startup the index is reconciled with the document table: entries of deleted documents are
+ * removed, and documents that are missing or were indexed with another content hash are (re)indexed.
+ *
+ * <p>Documents whose content is still in the legacy BLOB column are not indexed.
+ */
+@Slf4j
+@Service
+public class DocumentSearchIndex {
+
+    private static final String ID = "id";
+    private static final String HASH = "contentHash";
+    private static final String FILE_NAME = "fileName";
+    private static final String CONTENT = "content";
+    private static final int SNIPPET_CHARS = 160;
+    private static final Pattern OPERATOR_WORD = Pattern.compile("\\b(AND|OR|NOT)\\b");
+
+    private final MitsDocumentsRepository mitsDocumentsRepository;
+    private final DocumentContentStore contentStore;
+    private final DocumentTextExtractor textExtractor;
+    private final int maxIndexedChars;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public DocumentSearchIndex(MitsDocumentsRepository mitsDocumentsRepository,
+                               DocumentContentStore contentStore,
+                               DocumentTextExtractor textExtractor,
+                               @Value("${spark.documents.search.index-dir}") String indexDir,
+                               @Value("${spark.documents.search.max-indexed-chars}") int maxIndexedChars) throws IOException {
+        this.mitsDocumentsRepository = mitsDocumentsRepository;
+        this.contentStore = contentStore;
+        this.textExtractor = textExtractor;
+        this.maxIndexedChars = maxIndexedChars;
+        IndexWriterConfig config = new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        this.writer = new IndexWriter(FSDirectory.open(Path.of(indexDir).toAbsolutePath().normalize()), config);
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * Brings the index in line with the document table, repairing updates that were lost (e.g.
+     * the application stopped before they ran). Runs on the index thread, ahead of any later update.
+     */
+    @Async("documentIndexExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileWithDocuments() {
+        try {
+            Map<String, String> indexedHashes = indexedHashes();
+            int indexed = 0;
+            int removed = 0;
+            for (MitsDocumentSummary document : mitsDocumentsRepository.findAllSummaries()) {
+                String id = String.valueOf(document.getId());
+                String indexedHash = indexedHashes.remove(id);
+                if (document.getContentHash() == null) {
+                    if (indexedHash != null) {
+                        writer.deleteDocuments(new Term(ID, id));
+                        removed++;
+                    }
+                } else if (!document.getContentHash().equals(indexedHash)) {
+                    if (index(document.getId(), document.getContentHash(), document.getMimetype(), document.getFileName())) {
+                        indexed++;
+                    } else if (indexedHash != null) {
+                        writer.deleteDocuments(new Term(ID, id));
+                        removed++;
+                    }
+                }
+            }
+            // Whatever is left belongs to documents that no longer exist
+            for (String id : indexedHashes.keySet()) {
+                writer.deleteDocuments(new Term(ID, id));
+                removed++;
+            }
+            commit();
+            log.info("Reconciled document search index: {} documents indexed, {} removed", indexed, removed);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not reconcile the document search index", e);
+        }
+    }
+
+    @Async("documentIndexExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDocumentSaved(MitsDocumentSavedEvent event) {
+        try {
+            if (index(event.getDocumentId(), event.getContentHash(), event.getMimetype(), event.getFileName())) {
+                commit();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not index document {}", event.getDocumentId(), e);
+        }
+    }
+
+    @Async("documentIndexExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDocumentDeleted(MitsDocumentDeletedEvent event) {
+        try {
+            writer.deleteDocuments(new Term(ID, String.valueOf(event.getDocumentId())));
+            commit();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not remove document {} from the search index", event.getDocumentId(), e);
+        }
+    }
+
+    /**
+     * Ranked matches for {@code queryText} (Lucene query syntax over content and file name; input
+     * that does not parse is searched as plain terms), each with a highlighted snippet.
+     *
+     * @throws IllegalArgumentException if the query cannot be parsed even as plain terms
+     */
+    public List<DocumentSearchHitDto> search(String queryText, int limit) throws IOException {
+        Query query = parse(queryText);
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs top = searcher.search(query, limit);
+            StoredFields storedFields = searcher.storedFields();
+            Highlighter highlighter = new Highlighter(
+                    new SimpleHTMLFormatter("<mark>", "</mark>"), new SimpleHTMLEncoder(), new QueryScorer(query, CONTENT));
+            highlighter.setTextFragmenter(new SimpleFragmenter(SNIPPET_CHARS));
+
+            List<DocumentSearchHitDto> hits = new ArrayList<>(top.scoreDocs.length);
+            for (ScoreDoc scoreDoc : top.scoreDocs) {
+                Document document = storedFields.document(scoreDoc.doc);
+                hits.add(DocumentSearchHitDto.builder()
+                        .id(Integer.valueOf(document.get(ID)))
+                        .fileName(document.get(FILE_NAME))
+                        .score(scoreDoc.score)
+                        .snippet(snippet(highlighter, document.get(CONTENT)))
+                        .build());
+            }
+            return hits;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+    }
+
+    private boolean index(Integer documentId, String contentHash, String mimetype, String fileName) throws IOException {
+        if (contentHash == null || !textExtractor.supports(mimetype) || !contentStore.exists(contentHash)) {
+            return false;
+        }
+        Optional<String> text;
+        try (InputStream in = contentStore.open(contentHash)) {
+            text = textExtractor.extractText(in, mimetype, maxIndexedChars);
+        }
+        if (text.isEmpty()) {
+            return false;
+        }
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(documentId), Field.Store.YES));
+        document.add(new StringField(HASH, contentHash, Field.Store.YES));
+        document.add(new TextField(FILE_NAME, fileName != null ? fileName : "", Field.Store.YES));
+        document.add(new TextField(CONTENT, text.get(), Field.Store.YES));
+        writer.updateDocument(new Term(ID, String.valueOf(documentId)), document);
+        return true;
+    }
+
+    // Content hash by document id of every live entry; entries indexed before the hash was stored map to ""
+    private Map<String, String> indexedHashes() throws IOException {
+        Map<String, String> hashes = new HashMap<>();
+        searcherManager.maybeRefreshBlocking();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            Set<String> fields = Set.of(ID, HASH);
+            for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+                Bits liveDocs = leaf.reader().getLiveDocs();
+                StoredFields storedFields = leaf.reader().storedFields();
+                for (int doc = 0; doc < leaf.reader().maxDoc(); doc++) {
+                    if (liveDocs == null || liveDocs.get(doc)) {
+                        Document document = storedFields.document(doc, fields);
+                        String hash = document.get(HASH);
+                        hashes.put(document.get(ID), hash != null ? hash : "");
+                    }
+                }
+            }
+            return hashes;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private void commit() throws IOException {
+        writer.commit();
+        searcherManager.maybeRefresh();
+    }
+
+    private Query parse(String queryText) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(new String[]{CONTENT, FILE_NAME}, analyzer);
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        try {
+            return parser.parse(queryText);
+        } catch (ParseException e) {
+            try {
+                // escape() leaves the operator words alone, and a dangling one does not parse either
+                String plain = OPERATOR_WORD.matcher(QueryParser.escape(queryText))
+                        .replaceAll(word -> word.group().toLowerCase(Locale.ROOT));
+                return parser.parse(plain);
+            } catch (ParseException escaped) {
+                throw new IllegalArgumentException("Invalid search query", escaped);
+            }
+        }
+    }
+
+    private String snippet(Highlighter highlighter, String content) throws IOException {
+        if (content == null) {
+            return null;
+        }
+        try {
+            String fragment = highlighter.getBestFragment(analyzer, CONTENT, content);
+            if (fragment != null) {
+                return fragment;
+            }
+        } catch (InvalidTokenOffsetsException e) {
+            log.debug("Could not highlight search hit", e);
+        }
+        return DocumentTextExtractor.excerpt(content, SNIPPET_CHARS).map(new SimpleHTMLEncoder()::encodeText).orElse("");
+    }
+}
@@ -0,0 +1,133 @@
+package com.mislbd.spark.service;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts plain text from document content for previews and the search index. Supports text
+ * types (including CSV), HTML (tags stripped) and PDFs with a text layer. Text documents are only
+ * read as far as needed for the requested number of characters.
+ */
+@Component
+public class DocumentTextExtractor {
+
+    private static final String PDF = "application/pdf";
+    private static final Set<String> HTML_TYPES = Set.of("text/html", "application/xhtml+xml");
+    private static final Set<String> TEXT_APPLICATION_TYPES = Set.of(
+            "application/json", "application/xml", "application/javascript", "application/x-yaml", "application/sql");
+    private static final int CHARS_PER_PDF_PAGE = 1_000;
+
+    private static final Pattern SCRIPT_OR_STYLE = Pattern.compile("(?is)<(script|style)\\b[^>]*>.*?</\\1\\s*>");
+    private static final Pattern TAG_OR_COMMENT = Pattern.compile("(?s)<!--.*?-->|<[^>]*>");
+    private static final Pattern NUMERIC_ENTITY = Pattern.compile("&#(x?)([0-9a-fA-F]+);");
+
+    public boolean supports(String mimetype) {
+        String type = baseType(mimetype);
+        return type.startsWith("text/") || TEXT_APPLICATION_TYPES.contains(type)
+                || HTML_TYPES.contains(type) || PDF.equals(type);
+    }
+
+    /**
+     * Returns up to {@code maxChars} characters of the document's text, or empty if the type is not
+     * supported or the content has no text.
+     */
+    public Optional<String> extractText(InputStream content, String mimetype, int maxChars) throws IOException {
+        String type = baseType(mimetype);
+        if (!supports(type)) {
+            return Optional.empty();
+        }
+        String text;
+        if (PDF.equals(type)) {
+            text = pdfText(content, maxChars);
+        } else {
+            // UTF-8 needs at most 4 bytes per character
+            text = decode(content.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, maxChars * 4L)));
+            if (HTML_TYPES.contains(type)) {
+                text = stripHtml(text);
+            }
+        }
+        if (text.length() > maxChars) {
+            text = text.substring(0, maxChars);
+        }
+        return text.isBlank() ? Optional.empty() : Optional.of(text);
+    }
+
+    /**
+     * Returns a preview excerpt of up to {@code maxChars} characters with whitespace collapsed.
+     */
+    public Optional<String> extractExcerpt(InputStream content, String mimetype, int maxChars) throws IOException {
+        return extractText(content, mimetype, maxChars * 4).flatMap(text -> excerpt(text, maxChars));
+    }
+
+    static Optional<String> excerpt(String text, int maxChars) {
+        String collapsed = text.replaceAll("\\s+", " ").trim();
+        if (collapsed.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(collapsed.length() <= maxChars ? collapsed : collapsed.substring(0, maxChars).trim() + "…");
+    }
+
+    private static String pdfText(InputStream content, int maxChars) throws IOException {
+        try (PDDocument document = Loader.loadPDF(new RandomAccessReadBuffer(content))) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setSortByPosition(true);
+            stripper.setEndPage((int) Math.min(Integer.MAX_VALUE, Math.max(1L, (long) maxChars / CHARS_PER_PDF_PAGE + 1)));
+            return stripper.getText(document);
+        }
+    }
+
+    static String stripHtml(String html) {
+        String text = SCRIPT_OR_STYLE.matcher(html).replaceAll(" ");
+        text = TAG_OR_COMMENT.matcher(text).replaceAll(" ");
+        text = text.replace("&nbsp;", " ")
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&#39;", "'")
+                .replace("&apos;", "'");
+        Matcher entity = NUMERIC_ENTITY.matcher(text);
+        StringBuilder decoded = new StringBuilder();
+        while (entity.find()) {
+            int codePoint;
+            try {
+                codePoint = Integer.parseInt(entity.group(2), entity.group(1).isEmpty() ? 10 : 16);
+            } catch (NumberFormatException e) {
+                codePoint = -1;
+            }
+            String replacement = Character.isValidCodePoint(codePoint) ? new String(Character.toChars(codePoint)) : " ";
+            entity.appendReplacement(decoded, Matcher.quoteReplacement(replacement));
+        }
+        entity.appendTail(decoded);
+        // &amp; last so "&amp;lt;" stays literal
+        return decoded.toString().replace("&amp;", "&");
+    }
+
+    private static String decode(byte[] bytes) throws IOException {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        return decoder.decode(ByteBuffer.wrap(bytes)).toString();
+    }
+
+    private static String baseType(String mimetype) {
+        if (mimetype == null) {
+            return "";
+        }
+        int parameters = mimetype.indexOf(';');
+        return (parameters >= 0 ? mimetype.substring(0, parameters) : mimetype).trim().toLowerCase();
+    }
+}
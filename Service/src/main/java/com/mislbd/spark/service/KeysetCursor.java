@@ -0,0 +1,41 @@
+package com.mislbd.spark.service;
+
+import com.mislbd.spark.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes the last seen id of a keyset page into an opaque, URL-safe token.
+ * The version prefix leaves room to add sort keys to the cursor later.
+ */
+final class KeysetCursor {
+
+    private static final String PREFIX = "v1:";
+
+    private KeysetCursor() {
+    }
+
+    static String encode(Integer lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the id to continue after, or {@link Integer#MIN_VALUE} for the first page
+     */
+    static int decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Integer.MIN_VALUE;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new InvalidCursorException("Unsupported cursor: " + cursor);
+            }
+            return Integer.parseInt(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor: " + cursor);
+        }
+    }
+}
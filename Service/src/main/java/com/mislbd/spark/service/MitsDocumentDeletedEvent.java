@@ -0,0 +1,13 @@
+package com.mislbd.spark.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a document row is deleted; listeners see it after the transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class MitsDocumentDeletedEvent {
+    private final Integer documentId;
+}
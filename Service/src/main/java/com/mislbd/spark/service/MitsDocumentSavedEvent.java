@@ -0,0 +1,16 @@
+package com.mislbd.spark.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a document's content has been saved; listeners see it after the transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class MitsDocumentSavedEvent {
+    private final Integer documentId;
+    private final String contentHash;
+    private final String mimetype;
+    private final String fileName;
+}
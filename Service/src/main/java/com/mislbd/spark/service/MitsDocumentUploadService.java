@@ -0,0 +1,334 @@
+package com.mislbd.spark.service;
+
+import com.mislbd.spark.dto.DocumentUploadDto;
+import com.mislbd.spark.dto.DocumentUploadRequestDto;
+import com.mislbd.spark.entity.MitsDocuments;
+import com.mislbd.spark.exception.InvalidUploadException;
+import com.mislbd.spark.exception.UploadNotFoundException;
+import com.mislbd.spark.exception.UploadOffsetMismatchException;
+import com.mislbd.spark.service.storage.DocumentContentStore;
+import com.mislbd.spark.service.storage.StagedContent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resumable chunked uploads. Each upload appends its chunks, in order, to a part file while a
+ * running SHA-256 is kept, so completing an upload never re-reads it. A failed chunk is rolled
+ * back to its offset and the client resumes from {@code receivedBytes}.
+ *
+ * <p>Upload sessions live in memory; part files left over from a previous run are removed at startup.
+ * Idle sessions expire after {@code spark.documents.upload-expiry}: they are refused on access and
+ * their part files are removed by a periodic sweep.
+ *
+ * <p>A session stays registered until its document is saved. If storing or saving fails, the
+ * session is reopened with its part file intact, so the client can retry completing it.
+ */
+@Slf4j
+@Service
+public class MitsDocumentUploadService {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final MitsDocumentsService mitsDocumentsService;
+    private final DocumentContentStore contentStore;
+    private final Path uploadDir;
+    private final long maxChunkBytes;
+    private final Duration expiry;
+    private final Clock clock;
+    private final ConcurrentMap<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MitsDocumentUploadService(MitsDocumentsService mitsDocumentsService,
+                                     DocumentContentStore contentStore,
+                                     @Value("${spark.documents.upload-dir}") String uploadDir,
+                                     @Value("${spark.documents.upload-max-chunk-size}") DataSize maxChunkSize,
+                                     @Value("${spark.documents.upload-expiry}") Duration expiry) throws IOException {
+        this(mitsDocumentsService, contentStore, uploadDir, maxChunkSize, expiry, Clock.systemUTC());
+    }
+
+    MitsDocumentUploadService(MitsDocumentsService mitsDocumentsService, DocumentContentStore contentStore,
+                              String uploadDir, DataSize maxChunkSize, Duration expiry, Clock clock) throws IOException {
+        this.mitsDocumentsService = mitsDocumentsService;
+        this.contentStore = contentStore;
+        this.uploadDir = Path.of(uploadDir).toAbsolutePath().normalize();
+        this.maxChunkBytes = maxChunkSize.toBytes();
+        this.expiry = expiry;
+        this.clock = clock;
+        Files.createDirectories(this.uploadDir);
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(this.uploadDir, "*.{part,completing}")) {
+            for (Path part : stale) {
+                Files.deleteIfExists(part);
+            }
+        }
+    }
+
+    public DocumentUploadDto initiate(DocumentUploadRequestDto request) throws IOException {
+        if (request.getTotalSize() != null && request.getTotalSize() < 0) {
+            throw new InvalidUploadException("totalSize must not be negative");
+        }
+        String uploadId = UUID.randomUUID().toString();
+        UploadSession session = new UploadSession(uploadId, request, Files.createFile(uploadDir.resolve(uploadId + ".part")), clock.instant());
+        sessions.put(uploadId, session);
+        log.info("Started upload {} for {}", uploadId, request.getFileName());
+        return toDto(session);
+    }
+
+    public DocumentUploadDto getStatus(String uploadId) {
+        UploadSession session = session(uploadId);
+        synchronized (session) {
+            return toDto(session);
+        }
+    }
+
+    /**
+     * Appends one chunk at {@code offset}, which must equal the bytes received so far. When
+     * {@code chunkSha256} is given, the chunk is only kept if its digest matches.
+     */
+    public DocumentUploadDto appendChunk(String uploadId, long offset, InputStream chunk, String chunkSha256) throws IOException {
+        UploadSession session = session(uploadId);
+        synchronized (session) {
+            session.ensureOpen();
+            if (offset != session.received) {
+                throw new UploadOffsetMismatchException(
+                        "Upload " + uploadId + " expects offset " + session.received + " but got " + offset);
+            }
+            MessageDigest running = copyOf(session.digest);
+            MessageDigest chunkDigest = sha256();
+            long written = 0;
+            boolean kept = false;
+            try (FileChannel channel = FileChannel.open(session.partFile, StandardOpenOption.WRITE)) {
+                channel.position(offset);
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                int read;
+                while ((read = chunk.read(buffer)) != -1) {
+                    written += read;
+                    if (written > maxChunkBytes) {
+                        throw new InvalidUploadException("Chunk exceeds the maximum of " + maxChunkBytes + " bytes");
+                    }
+                    if (session.totalSize != null && offset + written > session.totalSize) {
+                        throw new InvalidUploadException("Chunk extends past the declared size of " + session.totalSize + " bytes");
+                    }
+                    running.update(buffer, 0, read);
+                    chunkDigest.update(buffer, 0, read);
+                    ByteBuffer data = ByteBuffer.wrap(buffer, 0, read);
+                    while (data.hasRemaining()) {
+                        channel.write(data);
+                    }
+                }
+                if (chunkSha256 != null && !chunkSha256.equalsIgnoreCase(HexFormat.of().formatHex(chunkDigest.digest()))) {
+                    throw new InvalidUploadException("Chunk checksum mismatch at offset " + offset);
+                }
+                kept = true;
+            } finally {
+                if (!kept) {
+                    try (FileChannel channel = FileChannel.open(session.partFile, StandardOpenOption.WRITE)) {
+                        channel.truncate(offset);
+                    }
+                }
+            }
+            session.digest = running;
+            session.received += written;
+            session.lastTouched = clock.instant();
+            return toDto(session);
+        }
+    }
+
+    /**
+     * Verifies the assembled file and hands it to the document store in one step.
+     * {@code sha256} is optional; when given, it must match the whole file.
+     */
+    public MitsDocuments complete(String uploadId, String sha256) throws IOException {
+        UploadSession session = session(uploadId);
+        String hash;
+        synchronized (session) {
+            session.ensureOpen();
+            if (session.totalSize != null && session.received != session.totalSize) {
+                throw new InvalidUploadException(
+                        "Upload " + uploadId + " has " + session.received + " of " + session.totalSize + " bytes");
+            }
+            hash = HexFormat.of().formatHex(copyOf(session.digest).digest());
+            if (sha256 != null && !sha256.equalsIgnoreCase(hash)) {
+                throw new InvalidUploadException("Checksum mismatch for upload " + uploadId);
+            }
+            session.completing = true;
+        }
+
+        Path handOff = uploadDir.resolve(uploadId + ".completing");
+        boolean stored = false;
+        try {
+            StagedContent staged = contentStore.stage(handOff(session.partFile, handOff), hash, session.received);
+            MitsDocuments document = MitsDocuments.builder()
+                    .mits(session.request.getMits())
+                    .description(session.request.getDescription())
+                    .fileName(session.request.getFileName())
+                    .mimetype(session.request.getMimetype() != null
+                            ? session.request.getMimetype() : MediaType.APPLICATION_OCTET_STREAM_VALUE)
+                    .build();
+            MitsDocuments saved = mitsDocumentsService.saveMitsDocumentsContent(document, staged);
+            stored = true;
+            log.info("Completed upload {} as document {} ({} bytes)", uploadId, saved.getId(), session.received);
+            return saved;
+        } finally {
+            synchronized (session) {
+                session.completing = false;
+                if (stored) {
+                    session.completed = true;
+                    sessions.remove(uploadId, session);
+                    deleteQuietly(session.partFile);
+                } else {
+                    // The part file still holds every byte received; the client can retry
+                    session.lastTouched = clock.instant();
+                    log.warn("Could not complete upload {}; it stays open for a retry", uploadId);
+                }
+            }
+            deleteQuietly(handOff);
+        }
+    }
+
+    public void abort(String uploadId) throws IOException {
+        UploadSession session = session(uploadId);
+        synchronized (session) {
+            session.ensureOpen();
+            session.completed = true;
+            sessions.remove(uploadId);
+            Files.deleteIfExists(session.partFile);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${spark.documents.upload-sweep-interval}")
+    public void removeExpiredSessions() {
+        Instant cutoff = clock.instant().minus(expiry);
+        sessions.values().removeIf(session -> expire(session, cutoff));
+    }
+
+    private UploadSession session(String uploadId) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null || expire(session, clock.instant().minus(expiry))) {
+            if (session != null) {
+                sessions.remove(uploadId, session);
+            }
+            throw new UploadNotFoundException("Upload not found: " + uploadId);
+        }
+        return session;
+    }
+
+    /**
+     * Closes {@code session} and removes its part file when it was last used before {@code cutoff};
+     * true when the session is closed. A session being completed never expires.
+     */
+    private boolean expire(UploadSession session, Instant cutoff) {
+        synchronized (session) {
+            if (session.completed) {
+                return true;
+            }
+            if (session.completing || session.lastTouched.isAfter(cutoff)) {
+                return false;
+            }
+            session.completed = true;
+            deleteQuietly(session.partFile);
+            log.info("Upload {} expired", session.id);
+            return true;
+        }
+    }
+
+    /**
+     * A second name for the part file for the store to move away, so the part file itself stays
+     * in place until the document is saved. Falls back to a copy where hard links are unsupported.
+     */
+    private static Path handOff(Path partFile, Path handOff) throws IOException {
+        Files.deleteIfExists(handOff);
+        try {
+            return Files.createLink(handOff, partFile);
+        } catch (UnsupportedOperationException | IOException e) {
+            return Files.copy(partFile, handOff, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete upload file {}", file, e);
+        }
+    }
+
+    private DocumentUploadDto toDto(UploadSession session) {
+        return DocumentUploadDto.builder()
+                .uploadId(session.id)
+                .fileName(session.request.getFileName())
+                .totalSize(session.totalSize)
+                .receivedBytes(session.received)
+                .expiresAt(session.lastTouched.plus(expiry))
+                .build();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static MessageDigest copyOf(MessageDigest digest) {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-256 digest cannot be cloned", e);
+        }
+    }
+
+    private static final class UploadSession {
+        private final String id;
+        private final DocumentUploadRequestDto request;
+        private final Long totalSize;
+        private final Path partFile;
+        private MessageDigest digest = sha256();
+        private long received;
+        private Instant lastTouched;
+        private boolean completed;
+        // Document is being stored; appends, aborts and other completions are refused meanwhile
+        private boolean completing;
+
+        private UploadSession(String id, DocumentUploadRequestDto request, Path partFile, Instant started) {
+            this.id = id;
+            this.request = request;
+            this.totalSize = request.getTotalSize();
+            this.partFile = partFile;
+            this.lastTouched = started;
+        }
+
+        private void ensureOpen() {
+            if (completed) {
+                throw new UploadNotFoundException("Upload not found: " + id);
+            }
+            if (completing) {
+                throw new InvalidUploadException("Upload " + id + " is being completed");
+            }
+        }
+    }
+}
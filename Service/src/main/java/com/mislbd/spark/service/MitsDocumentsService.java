@@ -2,25 +2,80 @@ package com.mislbd.spark.service;
 
 import com.mislbd.spark.entity.MitsDocuments;
 import com.mislbd.spark.repository.MitsDocumentsRepository;
+import com.mislbd.spark.repository.projection.MitsDocumentSummary;
+import com.mislbd.spark.service.storage.DocumentContentStore;
+import com.mislbd.spark.service.storage.StagedContent;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Document metadata lives in SPARK_MITS_DOCUMENTS; content lives in the {@link DocumentContentStore}
+ * and is referenced by CONTENT_HASH. Rows sharing a hash share one stored copy, which is deleted once
+ * no row references it. Rows created before the store existed keep their BLOB and are served from it.
+ *
+ * <p>Uploads hold the lock for their hash until their transaction completes, and deletions count
+ * references under the same lock, so a file is never removed while a new row pointing at it commits.
+ */
+@Slf4j
 @Service
 public class MitsDocumentsService {
+    private static final int CONTENT_LOCK_STRIPES = 64;
+
     private final MitsDocumentsRepository mitsDocumentsRepository;
+    private final DocumentContentStore contentStore;
+    private final TransactionTemplate referenceCheckTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Lock[] contentLocks = new Lock[CONTENT_LOCK_STRIPES];
 
     @Autowired
-    public MitsDocumentsService(MitsDocumentsRepository mitsDocumentsRepository) {
+    public MitsDocumentsService(MitsDocumentsRepository mitsDocumentsRepository,
+                                DocumentContentStore contentStore,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher) {
         this.mitsDocumentsRepository = mitsDocumentsRepository;
+        this.contentStore = contentStore;
+        this.eventPublisher = eventPublisher;
+        this.referenceCheckTransaction = new TransactionTemplate(transactionManager);
+        this.referenceCheckTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.referenceCheckTransaction.setReadOnly(true);
+        for (int i = 0; i < CONTENT_LOCK_STRIPES; i++) {
+            contentLocks[i] = new ReentrantLock();
+        }
     }
 
     public List<MitsDocuments> getAllMitsDocuments() {
         return mitsDocumentsRepository.findAll();
     }
 
+    public List<MitsDocumentSummary> getAllMitsDocumentSummaries() {
+        return mitsDocumentsRepository.findAllSummaries();
+    }
+
+    public Optional<MitsDocumentSummary> getMitsDocumentSummary(Integer id) {
+        return mitsDocumentsRepository.findSummaryById(id);
+    }
+
     public Optional<MitsDocuments> getMitsDocumentsById(Integer id) {
         return mitsDocumentsRepository.findById(id);
     }
@@ -29,7 +84,147 @@ public class MitsDocumentsService {
         return mitsDocumentsRepository.save(mitsDocuments);
     }
 
+    /**
+     * Updates the descriptive fields only; the stored content and its hash are left untouched.
+     */
+    @Transactional
+    public Optional<MitsDocuments> updateMitsDocumentsMetadata(Integer id, MitsDocuments changes) {
+        return mitsDocumentsRepository.findById(id).map(existing -> {
+            existing.setMits(changes.getMits());
+            existing.setDescription(changes.getDescription());
+            existing.setFileName(changes.getFileName());
+            existing.setMimetype(changes.getMimetype());
+            existing.setUpdatedAt(Instant.now());
+            return mitsDocumentsRepository.save(existing);
+        });
+    }
+
+    /**
+     * Saves a document together with its content. The bytes go to the content store (once per
+     * distinct SHA-256) and the row keeps only the hash and size.
+     */
+    @Transactional
+    public MitsDocuments saveMitsDocumentsContent(MitsDocuments mitsDocuments, InputStream content) throws IOException {
+        return saveMitsDocumentsContent(mitsDocuments, contentStore.stage(content));
+    }
+
+    /**
+     * Saves a document whose content has already been staged, e.g. an assembled chunked upload.
+     */
+    @Transactional
+    public MitsDocuments saveMitsDocumentsContent(MitsDocuments mitsDocuments, StagedContent staged) throws IOException {
+        String hash = staged.getHash();
+        Lock lock = contentLock(hash);
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status != STATUS_COMMITTED) {
+                        deleteContentIfUnreferenced(hash);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+        try {
+            contentStore.publish(staged);
+        } catch (IOException e) {
+            contentStore.discard(staged);
+            throw e;
+        }
+
+        mitsDocuments.setContentHash(hash);
+        mitsDocuments.setFileSize(staged.getSize());
+        mitsDocuments.setDocument(null);
+        if (mitsDocuments.getCreatedAt() == null) {
+            mitsDocuments.setCreatedAt(Instant.now());
+        }
+        MitsDocuments saved = mitsDocumentsRepository.save(mitsDocuments);
+        // Previews are generated after commit on the preview pool (DocumentPreviewService)
+        eventPublisher.publishEvent(new MitsDocumentSavedEvent(saved.getId(), hash, saved.getMimetype(), saved.getFileName()));
+        return saved;
+    }
+
+    /**
+     * Copies {@code length} bytes of the document content starting at {@code offset} (0-based)
+     * to {@code out}: from the content store when the row has a hash, otherwise from its BLOB.
+     */
+    @Transactional(readOnly = true)
+    public void writeMitsDocumentContent(Integer id, long offset, long length, OutputStream out) throws IOException {
+        if (length == 0) {
+            return;
+        }
+        MitsDocuments document = mitsDocumentsRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Document not found with ID: " + id));
+        if (document.getContentHash() != null) {
+            contentStore.copyTo(document.getContentHash(), offset, length, Channels.newChannel(out));
+            return;
+        }
+        Blob blob = document.getDocument();
+        if (blob == null) {
+            return;
+        }
+        try (InputStream in = blob.getBinaryStream(offset + 1, length)) {
+            in.transferTo(out);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to read content of document " + id, e);
+        }
+    }
+
+    /**
+     * Size of the stored content with {@code hash}, when a document references it.
+     */
+    public Optional<Long> getStoredContentSize(String hash) {
+        return mitsDocumentsRepository.findFileSizesByContentHash(hash).stream()
+                .filter(Objects::nonNull)
+                .findFirst()
+                .filter(size -> contentStore.exists(hash));
+    }
+
+    public void writeStoredContent(String hash, long offset, long length, OutputStream out) throws IOException {
+        if (length > 0) {
+            contentStore.copyTo(hash, offset, length, Channels.newChannel(out));
+        }
+    }
+
+    @Transactional
     public void deleteMitsDocuments(Integer id) {
+        String hash = mitsDocumentsRepository.findSummaryById(id)
+                .map(MitsDocumentSummary::getContentHash)
+                .orElse(null);
         mitsDocumentsRepository.deleteById(id);
+        eventPublisher.publishEvent(new MitsDocumentDeletedEvent(id));
+        if (hash != null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    Lock lock = contentLock(hash);
+                    lock.lock();
+                    try {
+                        deleteContentIfUnreferenced(hash);
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            });
+        }
+    }
+
+    // Callers hold the hash's content lock
+    private void deleteContentIfUnreferenced(String hash) {
+        Long references = referenceCheckTransaction.execute(tx -> mitsDocumentsRepository.countByContentHash(hash));
+        if (references != null && references == 0) {
+            try {
+                contentStore.delete(hash);
+            } catch (IOException e) {
+                log.warn("Could not delete unreferenced document content {}", hash, e);
+            }
+        }
+    }
+
+    private Lock contentLock(String hash) {
+        return contentLocks[Math.floorMod(hash.hashCode(), CONTENT_LOCK_STRIPES)];
     }
 }
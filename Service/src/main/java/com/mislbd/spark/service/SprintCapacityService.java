@@ -1,26 +1,27 @@
 package com.mislbd.spark.service;
 
 import com.mislbd.spark.dto.*;
-import com.mislbd.spark.entity.BacklogTask;
 import com.mislbd.spark.entity.SprintInfo;
 import com.mislbd.spark.entity.SprintUserCapacity;
 import com.mislbd.spark.entity.User;
 import com.mislbd.spark.repository.SprintInfoRepository;
 import com.mislbd.spark.repository.SprintUserCapacityRepository;
 import com.mislbd.spark.repository.UserRepository;
+import com.mislbd.spark.repository.projection.SprintAssigneeTaskStats;
+import com.mislbd.spark.util.CapacityCalculator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.Instant;
-import java.time.LocalDate;
-import java.time.ZoneOffset;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -36,6 +37,8 @@ public class SprintCapacityService {
     private final UserRepository userRepository;
     private final TeamMembershipService teamMembershipService;
     private final BacklogTaskService backlogTaskService;
+    private final SprintCapacitySummaryCache capacitySummaryCache;
+    private final WorkingDayCalendarService workingDayCalendar;
 
     /**
      * Create sprint with capacity planning
@@ -44,10 +47,18 @@ public class SprintCapacityService {
     public SprintInfo createSprintWithCapacity(SprintCreationDto sprintDto) {
         log.info("Creating sprint with capacity planning: {}", sprintDto.getSprintName());
 
-        // Calculate sprint duration
-        int sprintDurationDays = calculateSprintDurationFromLocalDate(sprintDto.getFromDate(), sprintDto.getToDate());
+        WorkingDayCalendarService.validateSprintDates(sprintDto.getFromDate(), sprintDto.getToDate());
+
+        // Calculate sprint duration; weekends, holidays and the team's days off are not working days
+        int sprintDurationDays = WorkingDayCalendarService.calendarDaysBetween(sprintDto.getFromDate(), sprintDto.getToDate());
+        int workingDays = workingDayCalendar.workingDaysBetween(sprintDto.getFromDate(), sprintDto.getToDate(), sprintDto.getTramId());
         sprintDto.setSprintDurationDays(sprintDurationDays);
 
+        // Validate all capacity users up front, before anything is written
+        List<SprintUserCapacityDto> capacityDtos = sprintDto.getUserCapacities() != null
+                ? sprintDto.getUserCapacities() : List.of();
+        Map<Long, User> capacityUsers = loadCapacityUsers(capacityDtos);
+
         // Create Sprint Info
         SprintInfo sprintInfo = SprintInfo.builder()
                 .sprintName(sprintDto.getSprintName())
@@ -57,7 +68,9 @@ public class SprintCapacityService {
                 .sprintPoint(sprintDto.getSprintPoint())
                 .detailsRemark(sprintDto.getDetailsRemark())
                 .createBy(sprintDto.getCreateBy())
-                .noOfHolidays(sprintDto.getNoOfHolidays() != null ? sprintDto.getNoOfHolidays() : 0)
+                // A client-supplied count is kept; otherwise it is taken from the team's calendar
+                .noOfHolidays(sprintDto.getNoOfHolidays() != null ? sprintDto.getNoOfHolidays()
+                        : sprintDurationDays - workingDays)
                 .status(0) // Planning phase
                 .build();
 
@@ -65,8 +78,9 @@ public class SprintCapacityService {
         log.info("Sprint created with ID: {}", sprintInfo.getId());
 
         // Create user capacities
-        if (sprintDto.getUserCapacities() != null && !sprintDto.getUserCapacities().isEmpty()) {
-            createUserCapacities(sprintInfo.getId(), sprintDto.getUserCapacities(), sprintDurationDays);
+        if (!capacityDtos.isEmpty()) {
+            createUserCapacities(sprintInfo.getId(), capacityDtos, capacityUsers, workingDays);
+            capacitySummaryCache.invalidate(sprintInfo.getId());
         }
 
         return sprintInfo;
@@ -87,12 +101,12 @@ public class SprintCapacityService {
         User user = userRepository.findById(capacityDto.getUserId())
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + capacityDto.getUserId()));
 
-        // Calculate sprint duration
-      //  int sprintDurationDays = calculateSprintDurationFromLocalDate(sprint.getFromDate(), sprint.getToDate());
-        int sprintDurationDays = calculateSprintDuration(sprint.getFromDate(), sprint.getToDate());
+        int workingDays = workingDays(sprint);
 
         // Find existing capacity or create new
-        SprintUserCapacity capacity = capacityRepository.findBySprintIdAndUserId(sprintId, capacityDto.getUserId())
+        Optional<SprintUserCapacity> existing = capacityRepository.findBySprintIdAndUserId(sprintId, capacityDto.getUserId());
+        SprintCapacityTotals before = SprintCapacityTotals.of(existing.orElse(null));
+        SprintUserCapacity capacity = existing
                 .orElse(SprintUserCapacity.builder()
                         .sprintId(sprintId)
                         .userId(capacityDto.getUserId())
@@ -101,10 +115,10 @@ public class SprintCapacityService {
 
         // Update capacity data
         updateCapacityFromDto(capacity, capacityDto);
-        // capacity.calculateAvailableHours(sprintDurationDays);
-        capacity.calculateAvailableHours(sprintDurationDays);
+        capacity.calculateAvailableHours(workingDays);
 
         capacity = capacityRepository.save(capacity);
+        capacitySummaryCache.applyChange(sprintId, before, SprintCapacityTotals.of(capacity));
         log.info("User capacity saved with ID: {}", capacity.getId());
 
         return convertToDto(capacity);
@@ -130,6 +144,7 @@ public class SprintCapacityService {
         Optional<SprintUserCapacity> capacity = capacityRepository.findBySprintIdAndUserId(sprintId, userId);
         if (capacity.isPresent()) {
             capacityRepository.delete(capacity.get());
+            capacitySummaryCache.applyChange(sprintId, SprintCapacityTotals.of(capacity.get()), SprintCapacityTotals.EMPTY);
             log.info("User capacity removed successfully");
         }
     }
@@ -141,11 +156,13 @@ public class SprintCapacityService {
     public SprintUserCapacityDto updateUserAllocation(Integer sprintId, Long userId, BigDecimal allocatedHours) {
         SprintUserCapacity capacity = capacityRepository.findBySprintIdAndUserId(sprintId, userId)
                 .orElseThrow(() -> new RuntimeException("User capacity not found"));
+        SprintCapacityTotals before = SprintCapacityTotals.of(capacity);
 
         capacity.setAllocatedHours(allocatedHours);
         capacity.setRemainingHours(capacity.getAvailableWorkingHours().subtract(allocatedHours));
         
         capacity = capacityRepository.save(capacity);
+        capacitySummaryCache.applyChange(sprintId, before, SprintCapacityTotals.of(capacity));
         return convertToDto(capacity);
     }
 
@@ -172,35 +189,30 @@ public class SprintCapacityService {
         SprintInfo sprint = sprintInfoRepository.findById(sprintId)
                 .orElseThrow(() -> new RuntimeException("Sprint not found with ID: " + sprintId));
         List<SprintUserCapacity> capacities = capacityRepository.findBySprintIdAndStatus(sprintId, 1);
-        int sprintDuration = calculateSprintDurationFromLocalDate(sprint.getFromDate(), sprint.getToDate());
+        int workingDays = workingDays(sprint);
 
         // Map capacity by userId
         java.util.Map<Long, SprintUserCapacity> capMap = capacities.stream()
                 .collect(java.util.stream.Collectors.toMap(SprintUserCapacity::getUserId, c -> c, (a,b)->a));
 
-    // Gather tasks for this sprint (use entity directly to avoid generic inference mismatch)
-    List<BacklogTask> tasks = backlogTaskService.getAllBacklogTasks().stream()
-        .filter(t -> t.getSprintid() != null && t.getSprintid().equals(sprintId))
-        .collect(java.util.stream.Collectors.toList());
-
-        // Aggregate tasks by user
+        // Aggregate tasks by user in the database (unassigned tasks are not reported per user)
         class Agg { int tasksTotal=0; int tasksDone=0; int pointsTotal=0; int pointsDone=0; }
         java.util.Map<Long, Agg> taskAgg = new java.util.HashMap<>();
-    for (BacklogTask t : tasks) {
-            Long uid = t.getAssignedto() == null ? -1L : t.getAssignedto().longValue();
-            Agg a = taskAgg.computeIfAbsent(uid, k-> new Agg());
-            a.tasksTotal++;
-            if (t.getPoints()!=null) a.pointsTotal += t.getPoints();
-            if ("DONE".equalsIgnoreCase(t.getStatus())) {
-                a.tasksDone++;
-                if (t.getPoints()!=null) a.pointsDone += t.getPoints();
+        for (SprintAssigneeTaskStats stats : backlogTaskService.getSprintTaskStatsByAssignee(sprintId)) {
+            if (stats.getAssignedTo() == null) {
+                continue;
             }
+            Agg a = new Agg();
+            a.tasksTotal = toInt(stats.getTasksTotal());
+            a.tasksDone = toInt(stats.getTasksDone());
+            a.pointsTotal = toInt(stats.getPointsTotal());
+            a.pointsDone = toInt(stats.getPointsDone());
+            taskAgg.put(stats.getAssignedTo().longValue(), a);
         }
 
         java.util.Set<Long> allUserIds = new java.util.HashSet<>();
         allUserIds.addAll(capMap.keySet());
         allUserIds.addAll(taskAgg.keySet());
-        allUserIds.remove(-1L); // exclude unassigned pseudo user
 
         java.util.List<SprintUserProgressDto> result = new java.util.ArrayList<>();
         for (Long uid : allUserIds) {
@@ -210,13 +222,11 @@ public class SprintCapacityService {
             java.math.BigDecimal available = cap != null ? cap.getAvailableWorkingHours() : java.math.BigDecimal.ZERO;
             java.math.BigDecimal allocated = cap != null && cap.getAllocatedHours()!=null ? cap.getAllocatedHours() : java.math.BigDecimal.ZERO;
             java.math.BigDecimal remaining = available.subtract(allocated);
-            java.math.BigDecimal utilization = available.compareTo(java.math.BigDecimal.ZERO)>0 ?
-                    allocated.multiply(java.math.BigDecimal.valueOf(100)).divide(available,2, java.math.RoundingMode.HALF_UP)
-                    : java.math.BigDecimal.ZERO;
+            java.math.BigDecimal utilization = cap != null ? cap.getUtilizationPercentage() : java.math.BigDecimal.ZERO;
             int completionPct = a.tasksTotal>0 ? (int) Math.round((a.tasksDone*100.0)/a.tasksTotal) : 0;
             int pointsCompletionPct = a.pointsTotal>0 ? (int) Math.round((a.pointsDone*100.0)/a.pointsTotal) : 0;
-            java.math.BigDecimal velocity = sprintDuration>0 ?
-                    java.math.BigDecimal.valueOf(a.pointsDone).divide(java.math.BigDecimal.valueOf(sprintDuration),2, java.math.RoundingMode.HALF_UP)
+            java.math.BigDecimal velocity = workingDays>0 ?
+                    java.math.BigDecimal.valueOf(a.pointsDone).divide(java.math.BigDecimal.valueOf(workingDays),2, java.math.RoundingMode.HALF_UP)
                     : java.math.BigDecimal.ZERO;
             result.add(SprintUserProgressDto.builder()
                     .userId(uid)
@@ -243,11 +253,54 @@ public class SprintCapacityService {
 
     // Private helper methods
 
-    private void createUserCapacities(Integer sprintId, List<SprintUserCapacityDto> capacityDtos, int sprintDurationDays) {
+    private static int toInt(Long value) {
+        return value != null ? value.intValue() : 0;
+    }
+
+    /**
+     * Load the users for a batch of capacities with one query. Every problem (missing or duplicate
+     * user IDs) is reported in a single exception.
+     */
+    private Map<Long, User> loadCapacityUsers(List<SprintUserCapacityDto> capacityDtos) {
+        if (capacityDtos.isEmpty()) {
+            return Map.of();
+        }
+        Set<Long> userIds = new LinkedHashSet<>();
+        Set<Long> duplicateIds = new LinkedHashSet<>();
+        boolean missingUserId = false;
         for (SprintUserCapacityDto dto : capacityDtos) {
-            // Validate user exists
-            User user = userRepository.findById(dto.getUserId())
-                    .orElseThrow(() -> new RuntimeException("User not found with ID: " + dto.getUserId()));
+            if (dto.getUserId() == null) {
+                missingUserId = true;
+            } else if (!userIds.add(dto.getUserId())) {
+                duplicateIds.add(dto.getUserId());
+            }
+        }
+
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<Long> unknownIds = userIds.stream().filter(id -> !users.containsKey(id)).toList();
+
+        List<String> problems = new ArrayList<>();
+        if (missingUserId) {
+            problems.add("capacity entries without a user ID");
+        }
+        if (!unknownIds.isEmpty()) {
+            problems.add("users not found with IDs " + unknownIds);
+        }
+        if (!duplicateIds.isEmpty()) {
+            problems.add("duplicate user IDs " + duplicateIds);
+        }
+        if (!problems.isEmpty()) {
+            throw new RuntimeException("Invalid user capacities: " + String.join("; ", problems));
+        }
+        return users;
+    }
+
+    private void createUserCapacities(Integer sprintId, List<SprintUserCapacityDto> capacityDtos,
+                                      Map<Long, User> users, int workingDays) {
+        List<SprintUserCapacity> capacities = new ArrayList<>(capacityDtos.size());
+        for (SprintUserCapacityDto dto : capacityDtos) {
+            User user = users.get(dto.getUserId());
 
             SprintUserCapacity capacity = SprintUserCapacity.builder()
                     .sprintId(sprintId)
@@ -264,9 +317,11 @@ public class SprintCapacityService {
                     .status(1)
                     .build();
 
-            capacity.calculateAvailableHours(sprintDurationDays);
-            capacityRepository.save(capacity);
+            capacity.calculateAvailableHours(workingDays);
+            capacities.add(capacity);
         }
+        // Inserted as JDBC batches at flush (pooled ids, hibernate.jdbc.batch_size)
+        capacityRepository.saveAll(capacities);
     }
 
     private void updateCapacityFromDto(SprintUserCapacity capacity, SprintUserCapacityDto dto) {
@@ -315,29 +370,24 @@ public class SprintCapacityService {
                 .build();
     }
 
-    private int calculateSprintDuration(LocalDate fromDate, LocalDate toDate) {
-        if (fromDate == null || toDate == null) {
-            return 0;
-        }
-        return (int) ChronoUnit.DAYS.between(fromDate, toDate) + 1;
+    /**
+     * Working days of the sprint on its team's calendar
+     */
+    private int workingDays(SprintInfo sprint) {
+        return workingDayCalendar.workingDaysBetween(sprint.getFromDate(), sprint.getToDate(), sprint.getTramId());
     }
 
     /**
-     * Helper method to convert Instant to LocalDate for sprint duration calculation
+     * Holidays as recorded on the sprint, which may be a count the client supplied; the calendar's
+     * non-working days when none was recorded
      */
-    private int calculateSprintDurationFromInstant(Instant fromDate, Instant toDate) {
-        if (fromDate == null || toDate == null) {
-            return 0;
-        }
-        LocalDate fromLocalDate = fromDate.atZone(ZoneOffset.UTC).toLocalDate();
-        LocalDate toLocalDate = toDate.atZone(ZoneOffset.UTC).toLocalDate();
-        return calculateSprintDuration(fromLocalDate, toLocalDate);
+    private static int holidays(SprintInfo sprint, int nonWorkingDays) {
+        return sprint.getNoOfHolidays() != null ? sprint.getNoOfHolidays() : nonWorkingDays;
     }
 
     private SprintCapacitySummaryDto createEmptySummary(SprintInfo sprint) {
-        int sprintDuration = calculateSprintDurationFromLocalDate(sprint.getFromDate(), sprint.getToDate());
-        //int sprintDuration = calculateSprintDuration(sprint.getFromDate(), sprint.getToDate());
-        
+        int sprintDuration = WorkingDayCalendarService.calendarDaysBetween(sprint.getFromDate(), sprint.getToDate());
+        int workingDays = workingDays(sprint);
 
         return SprintCapacitySummaryDto.builder()
                 .totalTeamMembers(0)
@@ -356,136 +406,67 @@ public class SprintCapacityService {
                 .underUtilizedMembers(0)
                 .hasCapacityRisks(false)
                 .sprintDurationDays(sprintDuration)
-                .workingDays(sprintDuration - (sprint.getNoOfHolidays() != null ? sprint.getNoOfHolidays() : 0))
-                .holidays(sprint.getNoOfHolidays() != null ? sprint.getNoOfHolidays() : 0)
+                .workingDays(workingDays)
+                .holidays(holidays(sprint, sprintDuration - workingDays))
                 .build();
     }
 
-    private SprintCapacitySummaryDto calculateCapacitySummary(SprintInfo sprint, List<SprintUserCapacity> capacities) {
+    private SprintCapacitySummaryDto calculateCapacitySummary(SprintInfo sprint, SprintCapacityTotals totals) {
 
-        int sprintDuration = calculateSprintDurationFromLocalDate(sprint.getFromDate(), sprint.getToDate());
-        //int sprintDuration = calculateSprintDuration(sprint.getFromDate(), sprint.getToDate());
-        
+        int sprintDuration = WorkingDayCalendarService.calendarDaysBetween(sprint.getFromDate(), sprint.getToDate());
+        int workingDays = workingDays(sprint);
 
-        // Basic counts
-        int totalMembers = capacities.size();
-        int membersWithLeave = (int) capacities.stream().filter(c -> c.getLeaveDays() > 0).count();
-        
-        // Hour calculations
-        BigDecimal totalPotentialHours = capacities.stream()
-                .map(SprintUserCapacity::getTotalWorkingHours)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-                
-        BigDecimal totalAvailableHours = capacities.stream()
-                .map(SprintUserCapacity::getAvailableWorkingHours)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-                
-        BigDecimal totalAllocatedHours = capacities.stream()
-                .map(c -> c.getAllocatedHours() != null ? c.getAllocatedHours() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-                
-        BigDecimal totalRemainingHours = totalAvailableHours.subtract(totalAllocatedHours);
+        long totalPotentialHours = totals.getPotentialCentiHours();
+        long totalAvailableHours = totals.getAvailableCentiHours();
+        long totalAllocatedHours = totals.getAllocatedCentiHours();
+        long totalRemainingHours = totalAvailableHours - totalAllocatedHours;
         
         // Lost hours calculations
-        BigDecimal totalLostToLeave = totalPotentialHours.subtract(totalAvailableHours);
+        long totalLostToLeave = totalPotentialHours - totalAvailableHours;
         
         // Utilization and efficiency
-        BigDecimal averageUtilization = totalAvailableHours.compareTo(BigDecimal.ZERO) > 0 ?
-                totalAllocatedHours.multiply(BigDecimal.valueOf(100))
-                .divide(totalAvailableHours, 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
-                
-        BigDecimal teamEfficiency = totalPotentialHours.compareTo(BigDecimal.ZERO) > 0 ?
-                totalAvailableHours.multiply(BigDecimal.valueOf(100))
-                .divide(totalPotentialHours, 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+        long averageUtilization = CapacityCalculator.percentOf(totalAllocatedHours, totalAvailableHours);
+        long teamEfficiency = CapacityCalculator.percentOf(totalAvailableHours, totalPotentialHours);
         
         // Risk indicators
-        int overAllocatedMembers = (int) capacities.stream().filter(SprintUserCapacity::isOverAllocated).count();
-        int underUtilizedMembers = (int) capacities.stream()
-                .filter(c -> c.getUtilizationPercentage().compareTo(BigDecimal.valueOf(70)) < 0).count();
-                
-        // Total leave days
-        int totalLeaveDays = capacities.stream().mapToInt(SprintUserCapacity::getLeaveDays).sum();
+        int overAllocatedMembers = totals.getOverAllocatedMembers();
+        int underUtilizedMembers = totals.getUnderUtilizedMembers();
         
         return SprintCapacitySummaryDto.builder()
-                .totalTeamMembers(totalMembers)
-                .activeMembers(totalMembers)
-                .membersOnLeave(membersWithLeave)
-                .totalCapacityHours(totalAvailableHours)
-                .totalAllocatedHours(totalAllocatedHours)
-                .totalRemainingHours(totalRemainingHours)
-                .averageUtilization(averageUtilization)
-                .totalPotentialHours(totalPotentialHours)
-                .totalLostHoursToLeave(totalLostToLeave)
-                .totalLostHoursToCapacity(totalPotentialHours.subtract(totalAvailableHours))
-                .totalLeaveDays(totalLeaveDays)
-                .teamEfficiency(teamEfficiency)
+                .totalTeamMembers(totals.getMembers())
+                .activeMembers(totals.getMembers())
+                .membersOnLeave(totals.getMembersOnLeave())
+                .totalCapacityHours(CapacityCalculator.fromCenti(totalAvailableHours))
+                .totalAllocatedHours(CapacityCalculator.fromCenti(totalAllocatedHours))
+                .totalRemainingHours(CapacityCalculator.fromCenti(totalRemainingHours))
+                .averageUtilization(CapacityCalculator.fromCenti(averageUtilization))
+                .totalPotentialHours(CapacityCalculator.fromCenti(totalPotentialHours))
+                .totalLostHoursToLeave(CapacityCalculator.fromCenti(totalLostToLeave))
+                .totalLostHoursToCapacity(CapacityCalculator.fromCenti(totalLostToLeave))
+                .totalLeaveDays(totals.getLeaveDays())
+                .teamEfficiency(CapacityCalculator.fromCenti(teamEfficiency))
                 .overAllocatedMembers(overAllocatedMembers)
                 .underUtilizedMembers(underUtilizedMembers)
                 .hasCapacityRisks(overAllocatedMembers > 0 || underUtilizedMembers > 0)
                 .sprintDurationDays(sprintDuration)
-                .workingDays(sprintDuration - (sprint.getNoOfHolidays() != null ? sprint.getNoOfHolidays() : 0))
-                .holidays(sprint.getNoOfHolidays() != null ? sprint.getNoOfHolidays() : 0)
+                .workingDays(workingDays)
+                .holidays(holidays(sprint, sprintDuration - workingDays))
                 .build();
     }
 
     /**
-     * Calculate sprint duration in days from LocalDate
-     */
-    private int calculateSprintDurationFromLocalDate(LocalDate fromDate, LocalDate toDate) {
-        return (int) ChronoUnit.DAYS.between(fromDate, toDate) + 1; // +1 to include both start and end dates
-    }
-
-    /**
-     * Get sprint capacity summary
+     * Get sprint capacity summary, computed from the stored capacity rows and served from the
+     * per-sprint totals cache
      */
     public SprintCapacitySummaryDto getSprintCapacitySummary(Integer sprintId) {
         SprintInfo sprint = sprintInfoRepository.findById(sprintId)
                 .orElseThrow(() -> new RuntimeException("Sprint not found with ID: " + sprintId));
 
-        // Get sprint dates
-        LocalDate sprintStartDate = sprint.getFromDate();
-        LocalDate sprintEndDate = sprint.getToDate();
-
-        // Calculate sprint duration
-        int sprintDuration = calculateSprintDurationFromLocalDate(sprintStartDate, sprintEndDate);
-
-        // Get all team members using the existing service
-        List<TeamMemberDto> teamMembers = teamMembershipService.getTeamMembers(sprint.getTramId());
-
-        // Calculate total capacity hours (assuming 8 hours per day per member)
-        double dailyHoursPerMember = 8.0;
-        double totalCapacityHours = teamMembers.size() * dailyHoursPerMember * sprintDuration;
-
-        // For now, we'll use a placeholder for allocated hours
-        // You may need to adjust this based on actual task allocation
-        double totalAllocatedHours = totalCapacityHours * 0.8; // 80% allocation
-
-        // Calculate remaining hours
-        double totalRemainingHours = Math.max(0, totalCapacityHours - totalAllocatedHours);
-
-        // Calculate utilization
-        double averageUtilization = totalCapacityHours > 0 ? (totalAllocatedHours / totalCapacityHours) * 100 : 0;
-
-        // Create and return summary DTO using Builder pattern
-        return SprintCapacitySummaryDto.builder()
-                .totalTeamMembers(teamMembers.size())
-                .activeMembers(teamMembers.size()) // All members assumed active for now
-                .membersOnLeave(0) // Placeholder
-                .totalCapacityHours(BigDecimal.valueOf(totalCapacityHours))
-                .totalAllocatedHours(BigDecimal.valueOf(totalAllocatedHours))
-                .totalRemainingHours(BigDecimal.valueOf(totalRemainingHours))
-                .averageUtilization(BigDecimal.valueOf(averageUtilization))
-                .totalPotentialHours(BigDecimal.valueOf(totalCapacityHours))
-                .totalLostHoursToLeave(BigDecimal.ZERO)
-                .totalLostHoursToCapacity(BigDecimal.ZERO)
-                .totalLeaveDays(0)
-                .teamEfficiency(BigDecimal.valueOf(80.0)) // Default efficiency
-                .overAllocatedMembers(averageUtilization > 100 ? 1 : 0)
-                .underUtilizedMembers(averageUtilization < 70 ? teamMembers.size() : 0)
-                .hasCapacityRisks(averageUtilization > 90 || averageUtilization < 50)
-                .sprintDurationDays(sprintDuration)
-                .workingDays(sprintDuration - sprint.getNoOfHolidays())
-                .holidays(sprint.getNoOfHolidays())
-                .build();
+        SprintCapacityTotals totals = capacitySummaryCache.getOrLoad(sprintId,
+                () -> capacityRepository.findBySprintIdAndStatus(sprintId, 1));
+        if (totals.getMembers() == 0) {
+            return createEmptySummary(sprint);
+        }
+        return calculateCapacitySummary(sprint, totals);
     }
 }
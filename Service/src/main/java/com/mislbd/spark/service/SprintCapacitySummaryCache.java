@@ -0,0 +1,120 @@
+package com.mislbd.spark.service;
+
+import com.mislbd.spark.entity.SprintUserCapacity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Per-sprint cache of {@link SprintCapacityTotals}. Reads are O(1) once a sprint is loaded;
+ * capacity writes apply their delta after the surrounding transaction commits.
+ *
+ * <p>A cold load runs outside any lock, so it is only published when no write for the sprint
+ * was in flight or completed while it ran. Otherwise a load could miss, or double count, a
+ * change whose delta is applied separately. A deleted sprint's entry is removed with {@link #evict}.
+ */
+@Component
+public class SprintCapacitySummaryCache {
+
+    private final ConcurrentMap<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+    public SprintCapacityTotals getOrLoad(Integer sprintId, Supplier<List<SprintUserCapacity>> loader) {
+        Entry entry = entry(sprintId);
+        long versionBeforeLoad;
+        synchronized (entry) {
+            if (entry.totals != null) {
+                return entry.totals;
+            }
+            versionBeforeLoad = entry.version;
+        }
+        SprintCapacityTotals loaded = SprintCapacityTotals.of(loader.get());
+        synchronized (entry) {
+            if (entry.totals == null && entry.inFlight == 0 && entry.version == versionBeforeLoad) {
+                entry.totals = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Replaces one row's contribution ({@code before}) with its new one ({@code after}) once the
+     * current transaction commits.
+     */
+    public void applyChange(Integer sprintId, SprintCapacityTotals before, SprintCapacityTotals after) {
+        onCompletion(sprintId, totals -> totals.minus(before).plus(after));
+    }
+
+    /**
+     * Drops the cached totals once the current transaction commits; the next read reloads them.
+     */
+    public void invalidate(Integer sprintId) {
+        onCompletion(sprintId, totals -> null, false);
+    }
+
+    /**
+     * Removes the sprint's entry once the current transaction commits, for a deleted sprint. An
+     * entry that another write is still pending on is only emptied; that write's completion
+     * removes it.
+     */
+    public void evict(Integer sprintId) {
+        onCompletion(sprintId, totals -> null, true);
+    }
+
+    private void onCompletion(Integer sprintId, UnaryOperator<SprintCapacityTotals> update) {
+        onCompletion(sprintId, update, false);
+    }
+
+    private void onCompletion(Integer sprintId, UnaryOperator<SprintCapacityTotals> update, boolean evict) {
+        Entry entry = entry(sprintId);
+        synchronized (entry) {
+            entry.version++;
+            entry.inFlight++;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            complete(sprintId, entry, update, evict, true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                complete(sprintId, entry, update, evict, status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private void complete(Integer sprintId, Entry entry, UnaryOperator<SprintCapacityTotals> update,
+                          boolean evict, boolean committed) {
+        synchronized (entry) {
+            if (committed && entry.totals != null) {
+                entry.totals = update.apply(entry.totals);
+            }
+            if (committed && evict) {
+                entry.evicted = true;
+            }
+            entry.version++;
+            entry.inFlight--;
+            if (entry.evicted && entry.inFlight == 0) {
+                entry.totals = null;
+                entries.remove(sprintId, entry);
+            }
+        }
+    }
+
+    private Entry entry(Integer sprintId) {
+        return entries.computeIfAbsent(sprintId, id -> new Entry());
+    }
+
+    private static final class Entry {
+        private SprintCapacityTotals totals;
+        private long version;
+        private int inFlight;
+        // Sprint was deleted; the entry is removed once no write is pending on it
+        private boolean evicted;
+    }
+}
@@ -0,0 +1,88 @@
+package com.mislbd.spark.service;
+
+import com.mislbd.spark.entity.SprintUserCapacity;
+import com.mislbd.spark.util.CapacityCalculator;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Running totals of the active capacity rows of one sprint. Instances are immutable; a single
+ * row's contribution can be added or subtracted, which lets the summary be maintained
+ * incrementally instead of re-aggregating every row on each read. Hours are summed as
+ * centi-hours (see {@link CapacityCalculator}).
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SprintCapacityTotals {
+
+    public static final SprintCapacityTotals EMPTY =
+            new SprintCapacityTotals(0, 0, 0, 0, 0, 0, 0, 0);
+
+    // Members below this utilization percentage (in centi-percent) are reported as under-utilized
+    static final long UNDER_UTILIZATION_THRESHOLD = 70_00;
+
+    private final int members;
+    private final int membersOnLeave;
+    private final int leaveDays;
+    private final int overAllocatedMembers;
+    private final int underUtilizedMembers;
+    private final long potentialCentiHours;
+    private final long availableCentiHours;
+    private final long allocatedCentiHours;
+
+    /**
+     * Contribution of a single capacity row; inactive or missing rows contribute nothing.
+     */
+    public static SprintCapacityTotals of(SprintUserCapacity capacity) {
+        if (capacity == null || capacity.getStatus() == null || capacity.getStatus() != 1) {
+            return EMPTY;
+        }
+        int leaveDays = capacity.getLeaveDays() != null ? capacity.getLeaveDays() : 0;
+        long available = CapacityCalculator.toCenti(capacity.getAvailableWorkingHours());
+        long allocated = CapacityCalculator.toCenti(capacity.getAllocatedHours());
+        return new SprintCapacityTotals(
+                1,
+                leaveDays > 0 ? 1 : 0,
+                leaveDays,
+                capacity.isOverAllocated() ? 1 : 0,
+                CapacityCalculator.percentOf(allocated, available) < UNDER_UTILIZATION_THRESHOLD ? 1 : 0,
+                CapacityCalculator.toCenti(capacity.getTotalWorkingHours()),
+                available,
+                allocated);
+    }
+
+    public static SprintCapacityTotals of(List<SprintUserCapacity> capacities) {
+        SprintCapacityTotals totals = EMPTY;
+        for (SprintUserCapacity capacity : capacities) {
+            totals = totals.plus(of(capacity));
+        }
+        return totals;
+    }
+
+    public SprintCapacityTotals plus(SprintCapacityTotals other) {
+        return new SprintCapacityTotals(
+                members + other.members,
+                membersOnLeave + other.membersOnLeave,
+                leaveDays + other.leaveDays,
+                overAllocatedMembers + other.overAllocatedMembers,
+                underUtilizedMembers + other.underUtilizedMembers,
+                potentialCentiHours + other.potentialCentiHours,
+                availableCentiHours + other.availableCentiHours,
+                allocatedCentiHours + other.allocatedCentiHours);
+    }
+
+    public SprintCapacityTotals minus(SprintCapacityTotals other) {
+        return new SprintCapacityTotals(
+                members - other.members,
+                membersOnLeave - other.membersOnLeave,
+                leaveDays - other.leaveDays,
+                overAllocatedMembers - other.overAllocatedMembers,
+                underUtilizedMembers - other.underUtilizedMembers,
+                potentialCentiHours - other.potentialCentiHours,
+                availableCentiHours - other.availableCentiHours,
+                allocatedCentiHours - other.allocatedCentiHours);
+    }
+}
@@ -2,6 +2,7 @@ package com.mislbd.spark.service;
 
 import com.mislbd.spark.entity.SprintInfo;
 import com.mislbd.spark.repository.SprintInfoRepository;
+import com.mislbd.spark.repository.projection.SprintInfoSummaryView;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -9,9 +10,15 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.sql.Clob;
+import java.sql.SQLException;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Sprint Information Service - Industry Standard Implementation
@@ -28,6 +35,7 @@ import java.util.Optional;
 public class SprintInfoService {
     
     private final SprintInfoRepository sprintInfoRepository;
+    private final SprintCapacitySummaryCache capacitySummaryCache;
 
     /**
      * Retrieve all sprint information records
@@ -38,6 +46,55 @@ public class SprintInfoService {
         return sprintInfoRepository.findAll();
     }
 
+    /**
+     * Retrieve all sprints without their CLOB columns, for list views
+     * @return List of sprint summaries
+     */
+    public List<SprintInfoSummaryView> getAllSprintInfoSummaries() {
+        log.debug("Fetching sprint summaries");
+        return sprintInfoRepository.findAllSummaries();
+    }
+
+    /**
+     * Retrieve one sprint without its CLOB columns
+     * @param id Sprint ID
+     * @return Optional sprint summary
+     */
+    public Optional<SprintInfoSummaryView> getSprintInfoSummary(Integer id) {
+        log.debug("Fetching sprint summary by ID: {}", id);
+        return sprintInfoRepository.findSummaryById(id);
+    }
+
+    /**
+     * Check whether a sprint exists without loading it
+     * @param id Sprint ID
+     * @return true if the sprint exists
+     */
+    public boolean existsSprintInfo(Integer id) {
+        return sprintInfoRepository.existsById(id);
+    }
+
+    /**
+     * Stream one of a sprint's CLOB columns to a writer without materializing it
+     * @param id Sprint ID
+     * @param column CLOB accessor, e.g. SprintInfo::getComments
+     * @param out Target writer
+     */
+    public void writeSprintInfoText(Integer id, Function<SprintInfo, Clob> column, Writer out) throws IOException {
+        SprintInfo sprintInfo = sprintInfoRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Sprint not found with ID: " + id));
+        Clob clob = column.apply(sprintInfo);
+        if (clob == null) {
+            return;
+        }
+        try (Reader reader = clob.getCharacterStream()) {
+            reader.transferTo(out);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to read sprint text for ID: " + id, e);
+        }
+        out.flush();
+    }
+
     /**
      * Retrieve paginated sprint information
      * @param pageable Pagination information
@@ -95,6 +152,7 @@ public class SprintInfoService {
         }
         
         sprintInfoRepository.deleteById(id);
+        capacitySummaryCache.evict(id);
         log.info("Successfully deleted sprint with ID: {}", id);
     }
 
@@ -122,10 +180,6 @@ public class SprintInfoService {
      * @param sprintInfo Sprint to validate
      */
     private void validateSprintDates(SprintInfo sprintInfo) {
-        if (sprintInfo.getFromDate() != null && sprintInfo.getToDate() != null) {
-            if (sprintInfo.getFromDate().isAfter(sprintInfo.getToDate())) {
-                throw new IllegalArgumentException("Sprint start date cannot be after end date");
-            }
-        }
+        WorkingDayCalendarService.validateSprintDates(sprintInfo.getFromDate(), sprintInfo.getToDate());
     }
 }
@@ -6,17 +6,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class SprintService {
     private final SprintRepository sprintRepository;
+    private final WorkingDayCalendarService workingDayCalendar;
 
     @Autowired
-    public SprintService(SprintRepository sprintRepository) {
+    public SprintService(SprintRepository sprintRepository, WorkingDayCalendarService workingDayCalendar) {
         this.sprintRepository = sprintRepository;
+        this.workingDayCalendar = workingDayCalendar;
     }
 
     public List<Sprint> getAllSprints() {
@@ -40,10 +41,18 @@ public class SprintService {
     }
 
     public Sprint saveSprint(Sprint sprint) {
-        // Calculate sprint days if not provided
-        if (sprint.getTotalSprintDays() == null && sprint.getStartDate() != null && sprint.getEndDate() != null) {
-            long days = ChronoUnit.DAYS.between(sprint.getStartDate(), sprint.getEndDate()) + 1;
-            sprint.setTotalSprintDays((int) days);
+        WorkingDayCalendarService.validateSprintDates(sprint.getStartDate(), sprint.getEndDate());
+
+        // Calculate sprint days and non-working days (weekends, holidays, team days off) if not provided
+        if (sprint.getStartDate() != null && sprint.getEndDate() != null) {
+            int days = WorkingDayCalendarService.calendarDaysBetween(sprint.getStartDate(), sprint.getEndDate());
+            if (sprint.getTotalSprintDays() == null) {
+                sprint.setTotalSprintDays(days);
+            }
+            if (sprint.getNumberOfHolidays() == null) {
+                sprint.setNumberOfHolidays(workingDayCalendar.nonWorkingDaysBetween(
+                        sprint.getStartDate(), sprint.getEndDate(), sprint.getTeamId()));
+            }
         }
         
         // Set timestamps if new
@@ -8,7 +8,11 @@ import com.mislbd.spark.exception.MembershipNotFoundException;
 import com.mislbd.spark.repository.TeamMembershipRepository;
 import com.mislbd.spark.repository.TeamRepository;
 import com.mislbd.spark.repository.UserRepository;
+import com.mislbd.spark.repository.projection.TeamMemberView;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -34,9 +38,11 @@ public class TeamMembershipService {
         this.userRepository = userRepository;
     }
 
+    @Transactional(readOnly = true)
+    @Cacheable(value = "teamMembers", key = "#teamId")
     public List<TeamMemberDto> getTeamMembers(Integer teamId) {
-        List<TeamMembership> memberships = teamMembershipRepository.findByTeamId(teamId);
-        return memberships.stream()
+        List<TeamMemberView> members = teamMembershipRepository.findMemberViewsByTeamId(teamId);
+        return members.stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
@@ -46,10 +52,12 @@ public class TeamMembershipService {
         return count != null ? count.intValue() : 0;
     }
 
+    @Transactional(readOnly = true)
+    @Cacheable(value = "userTeams", key = "#userId")
     public List<TeamDto> getUserTeams(Long userId) {
-        List<TeamMembership> memberships = teamMembershipRepository.findByUserId(userId);
-        return memberships.stream()
-                .map(membership -> convertTeamToDto(membership.getTeam()))
+        List<Team> teams = teamMembershipRepository.findTeamsByUserId(userId);
+        return teams.stream()
+                .map(this::convertTeamToDto)
                 .collect(Collectors.toList());
     }
 
@@ -68,6 +76,10 @@ public class TeamMembershipService {
         return dto;
     }
 
+    @Caching(evict = {
+            @CacheEvict(value = "teamMembers", key = "#teamId"),
+            @CacheEvict(value = "userTeams", key = "T(java.lang.Long).valueOf(#userId)")
+    })
     public TeamMemberDto addTeamMember(Integer teamId, Integer userId, String role) {
         Team team = teamRepository.findById(teamId)
                 .orElseThrow(() -> new RuntimeException("Team not found"));
@@ -92,6 +104,10 @@ public class TeamMembershipService {
         return convertToDto(saved);
     }
 
+    @Caching(evict = {
+            @CacheEvict(value = "teamMembers", key = "#teamId"),
+            @CacheEvict(value = "userTeams", key = "T(java.lang.Long).valueOf(#userId)")
+    })
     public TeamMemberDto updateTeamMemberRole(Integer teamId, Integer userId, String role) {
         TeamMembershipId membershipId = new TeamMembershipId(Long.valueOf(userId), teamId);
         TeamMembership membership = teamMembershipRepository.findById(membershipId)
@@ -102,6 +118,10 @@ public class TeamMembershipService {
         return convertToDto(updated);
     }
 
+    @Caching(evict = {
+            @CacheEvict(value = "teamMembers", key = "#teamId"),
+            @CacheEvict(value = "userTeams", key = "T(java.lang.Long).valueOf(#userId)")
+    })
     public void removeTeamMember(Integer teamId, Integer userId) {
         TeamMembershipId membershipId = new TeamMembershipId(Long.valueOf(userId), teamId);
         if (!teamMembershipRepository.existsById(membershipId)) {
@@ -125,6 +145,20 @@ public class TeamMembershipService {
                 .build();
     }
 
+    private TeamMemberDto convertToDto(TeamMemberView member) {
+        String fullName = buildFullName(member.getFirstName(), member.getMiddleName(), member.getLastName());
+
+        return TeamMemberDto.builder()
+                .id(member.getUserId().intValue())
+                .userId(member.getUserId().intValue())
+                .teamId(member.getTeamId())
+                .userName(fullName)
+                .userEmail(member.getEmail())
+                .role(member.getTeamRole())
+                .joinedDate(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE))
+                .build();
+    }
+
     private String buildFullName(String firstName, String middleName, String lastName) {
         StringBuilder fullName = new StringBuilder();
         if (firstName != null && !firstName.trim().isEmpty()) {
@@ -4,7 +4,9 @@ import com.mislbd.spark.entity.Team;
 import com.mislbd.spark.repository.TeamRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,7 +23,7 @@ public class TeamService {
         this.teamRepository = teamRepository;
     }
 
-    @Cacheable("teams")
+    @Cacheable("teamList")
     public List<Team> getAllTeams() {
         return teamRepository.findAll();
     }
@@ -32,13 +34,21 @@ public class TeamService {
     }
 
     @Transactional
-    @CacheEvict(value = "teams", allEntries = true)
+    @Caching(put = @CachePut(value = "teams", key = "#result.id"), evict = {
+            @CacheEvict(value = "teamList", allEntries = true),
+            @CacheEvict(value = "userTeams", allEntries = true)
+    })
     public Team saveTeam(Team team) {
         return teamRepository.save(team);
     }
 
     @Transactional
-    @CacheEvict(value = "teams", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "teams", key = "#id"),
+            @CacheEvict(value = "teamList", allEntries = true),
+            @CacheEvict(value = "teamMembers", key = "#id"),
+            @CacheEvict(value = "userTeams", allEntries = true)
+    })
     public void deleteTeam(Integer id) {
         teamRepository.deleteById(id);
     }
@@ -1,18 +1,36 @@
 package com.mislbd.spark.service;
 
+import com.mislbd.spark.dto.UserSearchResultDto;
+import com.mislbd.spark.dto.UserSuggestionDto;
 import com.mislbd.spark.entity.User;
 import com.mislbd.spark.entity.types.Roles;
 import com.mislbd.spark.repository.UserRepository;
+import com.mislbd.spark.service.index.UserDirectory;
+import com.mislbd.spark.service.index.UserIndexes;
+import com.mislbd.spark.service.index.UserSearchIndex;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional(readOnly = true)
@@ -21,7 +39,34 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
-    @Cacheable("users")
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private UserDirectory userDirectory;
+
+    @Autowired
+    private UserIndexes userIndexes;
+
+    // Loads the in-memory user search index and directory once the application has started
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildUserIndexes() {
+        userIndexes.rebuild(userRepository::findAll);
+    }
+
+    /**
+     * Runs the user index build again once the backoff after a failed build has passed; checking
+     * is cheap and touches the database only when a retry is due.
+     */
+    @Scheduled(fixedDelayString = "${spark.users.index-retry-check-interval}")
+    public void retryUserIndexRebuild() {
+        if (userIndexes.isRetryDue()) {
+            userIndexes.rebuild(userRepository::findAll);
+        }
+    }
+
+    @Cacheable("userList")
     public List<User> getAllUsers() {
         // This will NOT load the memberships due to LAZY loading
         return userRepository.findAll();
@@ -33,15 +78,32 @@ public class UserService {
     }
 
     @Transactional
-    @CacheEvict(value = "users", allEntries = true)
+    @Caching(put = @CachePut(value = "users", key = "#result.id"), evict = {
+            @CacheEvict(value = "userList", allEntries = true),
+            @CacheEvict(value = "teamMembers", allEntries = true)
+    })
     public User saveUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        afterCommit(() -> {
+            userSearchIndex.put(saved);
+            userDirectory.put(saved);
+        });
+        return saved;
     }
 
     @Transactional
-    @CacheEvict(value = "users", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "users", key = "#id"),
+            @CacheEvict(value = "userList", allEntries = true),
+            @CacheEvict(value = "teamMembers", allEntries = true),
+            @CacheEvict(value = "userTeams", key = "#id")
+    })
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        afterCommit(() -> {
+            userSearchIndex.remove(id);
+            userDirectory.remove(id);
+        });
     }
 
     public Page<User> getAllUsers(Pageable pageable) {
@@ -62,9 +124,60 @@ public class UserService {
         return userRepository.findByActiveStatus(status);
     }
 
-    public List<User> searchUsers(String searchTerm) {
-        return userRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(
-            searchTerm, searchTerm, searchTerm, searchTerm
-        );
+    /**
+     * Users whose first or last name, username, email or employee id contains {@code searchTerm},
+     * in id order. Answered from the user search index; the database is only queried for the
+     * matching rows, or with LIKE while the index is being built or does not cover every user.
+     */
+    public List<UserSearchResultDto> searchUsers(String searchTerm, int limit) {
+        Optional<RoaringBitmap> matches = userSearchIndex.search(searchTerm);
+        List<User> users;
+        if (matches.isEmpty()) {
+            users = userRepository.searchByTerm(searchTerm).stream()
+                    .sorted(Comparator.comparing(User::getId))
+                    .limit(limit)
+                    .toList();
+        } else {
+            List<Long> ids = Arrays.stream(matches.get().toArray()).limit(limit).mapToObj(Long::valueOf).toList();
+            users = userRepository.findAllById(ids).stream()
+                    .sorted(Comparator.comparing(User::getId))
+                    .toList();
+        }
+        return users.stream().map(UserService::toSearchResult).toList();
+    }
+
+    /**
+     * Active users whose name, last name, username or email starts with {@code prefix}, for
+     * autocomplete; empty while the user directory is being built.
+     */
+    public Optional<List<UserSuggestionDto>> suggestUsers(String prefix, int limit) {
+        return userDirectory.suggest(prefix, limit);
+    }
+
+    private static UserSearchResultDto toSearchResult(User user) {
+        return UserSearchResultDto.builder()
+                .id(user.getId())
+                .name(Stream.of(user.getFirstName(), user.getLastName())
+                        .filter(part -> part != null && !part.isBlank())
+                        .map(String::trim)
+                        .collect(Collectors.joining(" ")))
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .employeeId(user.getEmployeeId())
+                .build();
+    }
+
+    // Index changes wait for the commit, so a rolled back write never shows up in search or suggestions
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
     }
 }
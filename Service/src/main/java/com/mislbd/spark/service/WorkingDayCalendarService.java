@@ -0,0 +1,156 @@
+package com.mislbd.spark.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mislbd.spark.config.SparkCalendarProperties;
+import com.mislbd.spark.exception.InvalidSprintDatesException;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Working days from {@link SparkCalendarProperties}: every day except the configured weekend days,
+ * company holidays and, for a team, that team's days off. Each year is precomputed once as a
+ * bitset of working days with prefix sums, so counting the working days in a range costs one
+ * subtraction per calendar year it spans. Ranges are limited to {@link #MAX_SPRINT_DAYS}, and
+ * only the most recently used years are kept.
+ */
+@Service
+public class WorkingDayCalendarService {
+
+    /** Longest sprint accepted, in calendar days */
+    public static final int MAX_SPRINT_DAYS = 366;
+
+    // A sprint spans at most two years, so this covers every team over decades of sprints
+    private static final int MAX_CACHED_YEARS = 256;
+
+    private final Set<DayOfWeek> weekendDays;
+    private final Set<LocalDate> holidays;
+    private final Map<Integer, Set<LocalDate>> teamDaysOff = new HashMap<>();
+    private final Cache<CalendarKey, YearCalendar> calendars = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_YEARS)
+            .build();
+
+    public WorkingDayCalendarService(SparkCalendarProperties properties) {
+        this.weekendDays = properties.getWeekendDays().isEmpty()
+                ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(properties.getWeekendDays());
+        this.holidays = Set.copyOf(properties.getHolidays());
+        properties.getTeamDaysOff().forEach((teamId, days) -> teamDaysOff.put(teamId, Set.copyOf(days)));
+    }
+
+    /**
+     * Calendar days from {@code from} to {@code to}, both inclusive; zero for a missing or reversed range.
+     */
+    public static int calendarDaysBetween(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            return 0;
+        }
+        return (int) ChronoUnit.DAYS.between(from, to) + 1;
+    }
+
+    /**
+     * Checks a sprint's dates when both are given: the start may not be after the end, and the
+     * sprint may not be longer than {@link #MAX_SPRINT_DAYS}.
+     *
+     * @throws InvalidSprintDatesException if the dates are out of order or too far apart
+     */
+    public static void validateSprintDates(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            return;
+        }
+        if (from.isAfter(to)) {
+            throw new InvalidSprintDatesException("Sprint start date cannot be after end date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_SPRINT_DAYS) {
+            throw new InvalidSprintDatesException("Sprint cannot be longer than " + MAX_SPRINT_DAYS + " days");
+        }
+    }
+
+    /**
+     * Working days of {@code teamId} (company calendar when {@code null}) from {@code from} to
+     * {@code to}, both inclusive; zero for a missing or reversed range.
+     *
+     * @throws InvalidSprintDatesException if the range is longer than {@link #MAX_SPRINT_DAYS}
+     */
+    public int workingDaysBetween(LocalDate from, LocalDate to, Integer teamId) {
+        if (from == null || to == null || to.isBefore(from)) {
+            return 0;
+        }
+        validateSprintDates(from, to);
+        int workingDays = 0;
+        for (int year = from.getYear(); year <= to.getYear(); year++) {
+            YearCalendar calendar = calendar(teamId, year);
+            int firstDay = year == from.getYear() ? from.getDayOfYear() : 1;
+            int lastDay = year == to.getYear() ? to.getDayOfYear() : calendar.length();
+            workingDays += calendar.count(firstDay, lastDay);
+        }
+        return workingDays;
+    }
+
+    /**
+     * Calendar days from {@code from} to {@code to} that are not working days of {@code teamId}
+     * (weekends, holidays and team days off); zero for a missing or reversed range.
+     *
+     * @throws InvalidSprintDatesException if the range is longer than {@link #MAX_SPRINT_DAYS}
+     */
+    public int nonWorkingDaysBetween(LocalDate from, LocalDate to, Integer teamId) {
+        return calendarDaysBetween(from, to) - workingDaysBetween(from, to, teamId);
+    }
+
+    private YearCalendar calendar(Integer teamId, int year) {
+        // Teams without their own days off share the company calendar
+        Integer key = teamId != null && teamDaysOff.containsKey(teamId) ? teamId : null;
+        return calendars.get(new CalendarKey(key, year), k -> build(k.year(),
+                k.teamId() != null ? teamDaysOff.get(k.teamId()) : Set.of()));
+    }
+
+    private YearCalendar build(int year, Collection<LocalDate> extraDaysOff) {
+        Set<LocalDate> daysOff = new HashSet<>(holidays);
+        daysOff.addAll(extraDaysOff);
+        int length = Year.of(year).length();
+        BitSet working = new BitSet(length + 1);
+        LocalDate date = LocalDate.ofYearDay(year, 1);
+        for (int day = 1; day <= length; day++, date = date.plusDays(1)) {
+            if (!weekendDays.contains(date.getDayOfWeek()) && !daysOff.contains(date)) {
+                working.set(day);
+            }
+        }
+        return new YearCalendar(working, length);
+    }
+
+    private record CalendarKey(Integer teamId, int year) {
+    }
+
+    /**
+     * One year's working days as prefix sums over the day of year (1-based): {@code prefix[d]} is
+     * the number of working days on days 1..d.
+     */
+    private static final class YearCalendar {
+        private final int[] prefix;
+
+        private YearCalendar(BitSet working, int length) {
+            this.prefix = new int[length + 1];
+            for (int day = 1; day <= length; day++) {
+                prefix[day] = prefix[day - 1] + (working.get(day) ? 1 : 0);
+            }
+        }
+
+        int length() {
+            return prefix.length - 1;
+        }
+
+        int count(int firstDay, int lastDay) {
+            return prefix[lastDay] - prefix[firstDay - 1];
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.mislbd.spark.service.index;
+
+import com.mislbd.spark.entity.BacklogTask;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One compressed bitmap of task ids per value of each {@link TaskFacet}. A search ORs the selected
+ * values within a facet and ANDs across facets; each facet's counts are taken against the
+ * selection on the other facets only, so the counts show what picking another value would return.
+ *
+ * <p>Each facet also keeps a column of value ordinals indexed by task id (task ids are identity
+ * values, so the column is dense). Counts for a facet with many values over a small selection
+ * are tallied from the column in one pass instead of one bitmap intersection per value.
+ */
+@Component
+public class BacklogTaskFacetIndex implements BacklogTaskIndexer {
+
+    private static final TaskFacet[] FACETS = TaskFacet.values();
+    // Above this many selected tasks per facet value, counting by bitmap intersection is cheaper than a column pass
+    private static final int TALLY_MAX_TASKS_PER_VALUE = 4096;
+
+    // Bitmaps are not thread-safe: writes take the write lock, searches the read lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Facet[] facets = new Facet[FACETS.length];
+
+    public BacklogTaskFacetIndex() {
+        for (int i = 0; i < facets.length; i++) {
+            facets[i] = new Facet();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            all.clear();
+            for (Facet facet : facets) {
+                facet.clear();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(BacklogTask task) {
+        int id = task.getId();
+        lock.writeLock().lock();
+        try {
+            all.add(id);
+            for (TaskFacet facet : FACETS) {
+                facets[facet.ordinal()].set(id, facet.valueOf(task));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(int taskId) {
+        lock.writeLock().lock();
+        try {
+            all.remove(taskId);
+            for (Facet facet : facets) {
+                facet.set(taskId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tasks having one of the selected values on every facet in {@code filters}; facets that are
+     * absent or have no values are not filtered on.
+     */
+    public TaskFacetSearchResult search(Map<TaskFacet, ? extends Collection<String>> filters) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap[] selected = select(filters);
+            RoaringBitmap matches = intersect(selected, -1);
+            Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+            for (TaskFacet facet : FACETS) {
+                int i = facet.ordinal();
+                // An unselected facet is counted over the matches themselves
+                RoaringBitmap base = selected[i] == null ? matches : intersect(selected, i);
+                counts.put(facet.getKey(), facets[i].counts(base));
+            }
+            return new TaskFacetSearchResult(matches != null ? matches : all.clone(), counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tasks matching {@code filters} as for {@link #search}, without the counts.
+     */
+    public RoaringBitmap matching(Map<TaskFacet, ? extends Collection<String>> filters) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = intersect(select(filters), -1);
+            return matches != null ? matches : all.clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Union of the selected values per facet ordinal; null for facets without a selection
+    private RoaringBitmap[] select(Map<TaskFacet, ? extends Collection<String>> filters) {
+        RoaringBitmap[] selected = new RoaringBitmap[FACETS.length];
+        filters.forEach((facet, values) -> {
+            if (values != null && !values.isEmpty()) {
+                selected[facet.ordinal()] = facets[facet.ordinal()].union(values);
+            }
+        });
+        return selected;
+    }
+
+    /**
+     * AND of the selected facets other than {@code skip}; {@code null} when none is selected. The
+     * selected bitmaps are unions built per search, so the result may be one of them.
+     */
+    private static RoaringBitmap intersect(RoaringBitmap[] selected, int skip) {
+        RoaringBitmap result = null;
+        for (int i = 0; i < selected.length; i++) {
+            if (i != skip && selected[i] != null) {
+                result = result == null ? selected[i] : RoaringBitmap.and(result, selected[i]);
+            }
+        }
+        return result;
+    }
+
+    private static final class Facet {
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final List<RoaringBitmap> bitmaps = new ArrayList<>();
+        // Value ordinal + 1 by task id; 0 when the task has no value
+        private int[] column = new int[0];
+
+        void clear() {
+            ordinals.clear();
+            values.clear();
+            bitmaps.clear();
+            column = new int[0];
+        }
+
+        void set(int id, String value) {
+            int previous = id < column.length ? column[id] : 0;
+            if (previous != 0) {
+                bitmaps.get(previous - 1).remove(id);
+            }
+            if (value == null) {
+                if (previous != 0) {
+                    column[id] = 0;
+                }
+                return;
+            }
+            int ordinal = ordinals.computeIfAbsent(value, v -> {
+                values.add(v);
+                bitmaps.add(new RoaringBitmap());
+                return values.size() - 1;
+            });
+            bitmaps.get(ordinal).add(id);
+            if (id >= column.length) {
+                column = Arrays.copyOf(column, Math.max(id + 1, column.length + (column.length >> 1)));
+            }
+            column[id] = ordinal + 1;
+        }
+
+        RoaringBitmap union(Collection<String> selectedValues) {
+            RoaringBitmap union = new RoaringBitmap();
+            for (String value : selectedValues) {
+                Integer ordinal = ordinals.get(value);
+                if (ordinal != null) {
+                    union.or(bitmaps.get(ordinal));
+                }
+            }
+            return union;
+        }
+
+        // Values with at least one task in base (all tasks when null), most frequent first
+        Map<String, Integer> counts(RoaringBitmap base) {
+            int[] tally = new int[values.size()];
+            if (base == null) {
+                for (int i = 0; i < tally.length; i++) {
+                    tally[i] = bitmaps.get(i).getCardinality();
+                }
+            } else if (base.getLongCardinality() <= (long) tally.length * TALLY_MAX_TASKS_PER_VALUE) {
+                int[] ordinalsById = column;
+                base.forEach((int id) -> {
+                    if (id < ordinalsById.length && ordinalsById[id] != 0) {
+                        tally[ordinalsById[id] - 1]++;
+                    }
+                });
+            } else {
+                for (int i = 0; i < tally.length; i++) {
+                    tally[i] = RoaringBitmap.andCardinality(base, bitmaps.get(i));
+                }
+            }
+
+            List<Integer> nonEmpty = new ArrayList<>();
+            for (int i = 0; i < tally.length; i++) {
+                if (tally[i] > 0) {
+                    nonEmpty.add(i);
+                }
+            }
+            nonEmpty.sort(Comparator.<Integer>comparingInt(i -> tally[i]).reversed().thenComparing(values::get));
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (int i : nonEmpty) {
+                counts.put(values.get(i), tally[i]);
+            }
+            return counts;
+        }
+    }
+}
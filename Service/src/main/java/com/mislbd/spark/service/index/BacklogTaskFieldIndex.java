@@ -0,0 +1,109 @@
+package com.mislbd.spark.service.index;
+
+import com.mislbd.spark.entity.BacklogTask;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Task ids by sprint, assignee, product module and team. Each lookup returns a sorted id array
+ * without touching the database; tasks with no value for a field are not listed under it.
+ */
+@Component
+public class BacklogTaskFieldIndex implements BacklogTaskIndexer {
+
+    private final IntPostings bySprint = new IntPostings();
+    private final IntPostings byAssignee = new IntPostings();
+    private final IntPostings byModule = new IntPostings();
+    private final IntPostings byTeam = new IntPostings();
+    // Keys each task is currently listed under, so it can be removed without reloading it
+    private final Map<Integer, IndexedKeys> indexed = new HashMap<>();
+
+    public int[] bySprint(int sprintId) {
+        return bySprint.get(sprintId);
+    }
+
+    public int[] byAssignee(int assigneeId) {
+        return byAssignee.get(assigneeId);
+    }
+
+    public int[] byModule(int moduleId) {
+        return byModule.get(moduleId);
+    }
+
+    public int[] byTeam(int teamId) {
+        return byTeam.get(teamId);
+    }
+
+    @Override
+    public void clear() {
+        bySprint.clear();
+        byAssignee.clear();
+        byModule.clear();
+        byTeam.clear();
+        indexed.clear();
+    }
+
+    // Bulk loading avoids copying a key's whole id array for every task the rebuild adds
+    @Override
+    public void startRebuild() {
+        clear();
+        bySprint.startBulkLoad();
+        byAssignee.startBulkLoad();
+        byModule.startBulkLoad();
+        byTeam.startBulkLoad();
+    }
+
+    @Override
+    public void finishRebuild() {
+        bySprint.finishBulkLoad();
+        byAssignee.finishBulkLoad();
+        byModule.finishBulkLoad();
+        byTeam.finishBulkLoad();
+    }
+
+    @Override
+    public void index(BacklogTask task) {
+        int id = task.getId();
+        IndexedKeys keys = new IndexedKeys(task.getSprintid(), task.getAssignedto(), task.getProductModuleId(), task.getTeamId());
+        IndexedKeys previous = indexed.put(id, keys);
+        if (previous != null) {
+            unlist(id, previous);
+        }
+        add(bySprint, keys.sprintId(), id);
+        add(byAssignee, keys.assigneeId(), id);
+        add(byModule, keys.moduleId(), id);
+        add(byTeam, keys.teamId(), id);
+    }
+
+    @Override
+    public void remove(int taskId) {
+        IndexedKeys previous = indexed.remove(taskId);
+        if (previous != null) {
+            unlist(taskId, previous);
+        }
+    }
+
+    private void unlist(int id, IndexedKeys keys) {
+        remove(bySprint, keys.sprintId(), id);
+        remove(byAssignee, keys.assigneeId(), id);
+        remove(byModule, keys.moduleId(), id);
+        remove(byTeam, keys.teamId(), id);
+    }
+
+    private static void add(IntPostings postings, Integer key, int id) {
+        if (key != null) {
+            postings.add(key, id);
+        }
+    }
+
+    private static void remove(IntPostings postings, Integer key, int id) {
+        if (key != null) {
+            postings.remove(key, id);
+        }
+    }
+
+    private record IndexedKeys(Integer sprintId, Integer assigneeId, Integer moduleId, Integer teamId) {
+    }
+}
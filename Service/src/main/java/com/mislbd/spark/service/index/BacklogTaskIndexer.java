@@ -0,0 +1,34 @@
+package com.mislbd.spark.service.index;
+
+import com.mislbd.spark.entity.BacklogTask;
+
+/**
+ * An in-memory index over backlog tasks, kept current by {@link BacklogTaskIndexes}. Calls are
+ * serialized, so implementations only need to make their reads safe against a concurrent write.
+ */
+public interface BacklogTaskIndexer {
+
+    void clear();
+
+    /**
+     * Adds the task, replacing whatever was indexed for its id before.
+     */
+    void index(BacklogTask task);
+
+    void remove(int taskId);
+
+    /**
+     * Starts a full rebuild: every task is then handed to {@link #index}, interleaved with
+     * ordinary writes, until {@link #finishRebuild()}. Lookups are not served in between, so an
+     * implementation may buffer and publish at the end. Clears the index by default.
+     */
+    default void startRebuild() {
+        clear();
+    }
+
+    /**
+     * Ends a rebuild started with {@link #startRebuild()}, also when it failed part way.
+     */
+    default void finishRebuild() {
+    }
+}
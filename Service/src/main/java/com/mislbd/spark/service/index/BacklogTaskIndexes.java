@@ -0,0 +1,135 @@
+package com.mislbd.spark.service.index;
+
+import com.mislbd.spark.entity.BacklogTask;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps every {@link BacklogTaskIndexer} current. Indexes are built from the database once at
+ * startup and then updated on each task write; until the first build has finished
+ * {@link #isReady()} is false and callers should query the database instead.
+ *
+ * <p>A failed build is retried with exponential backoff: {@link #isRetryDue()} turns true once
+ * the delay since the last failure has passed, and the caller runs {@link #rebuild} again.
+ */
+@Slf4j
+@Component
+public class BacklogTaskIndexes {
+
+    static final Duration INITIAL_RETRY_DELAY = Duration.ofSeconds(30);
+    static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(30);
+
+    private final List<BacklogTaskIndexer> indexers;
+    private final Clock clock;
+    // Tasks written while a rebuild is running; the rebuild must not overwrite them with the rows it read earlier
+    private final Set<Integer> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+    private boolean rebuilding;
+    private int failedBuilds;
+    private Instant retryAt;
+
+    @Autowired
+    public BacklogTaskIndexes(List<BacklogTaskIndexer> indexers) {
+        this(indexers, Clock.systemUTC());
+    }
+
+    BacklogTaskIndexes(List<BacklogTaskIndexer> indexers, Clock clock) {
+        this.indexers = indexers;
+        this.clock = clock;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * True when the last build failed, no build is running and the backoff delay has passed.
+     */
+    public synchronized boolean isRetryDue() {
+        return !ready && !rebuilding && retryAt != null && !clock.instant().isBefore(retryAt);
+    }
+
+    public synchronized void index(BacklogTask task) {
+        if (rebuilding) {
+            changedDuringRebuild.add(task.getId());
+        }
+        for (BacklogTaskIndexer indexer : indexers) {
+            indexer.index(task);
+        }
+    }
+
+    public synchronized void remove(Integer taskId) {
+        if (rebuilding) {
+            changedDuringRebuild.add(taskId);
+        }
+        for (BacklogTaskIndexer indexer : indexers) {
+            indexer.remove(taskId);
+        }
+    }
+
+    /**
+     * Rebuilds all indexes from {@code source}, which must hand every task to the consumer it is
+     * given. Does nothing while another rebuild is running.
+     */
+    public void rebuild(Consumer<Consumer<BacklogTask>> source) {
+        synchronized (this) {
+            if (rebuilding) {
+                log.info("Backlog task indexes are already being built");
+                return;
+            }
+            ready = false;
+            rebuilding = true;
+            changedDuringRebuild.clear();
+            indexers.forEach(BacklogTaskIndexer::startRebuild);
+        }
+        try {
+            int[] count = {0};
+            source.accept(task -> {
+                synchronized (this) {
+                    if (!changedDuringRebuild.contains(task.getId())) {
+                        for (BacklogTaskIndexer indexer : indexers) {
+                            indexer.index(task);
+                        }
+                    }
+                }
+                count[0]++;
+            });
+            synchronized (this) {
+                indexers.forEach(BacklogTaskIndexer::finishRebuild);
+                rebuilding = false;
+                changedDuringRebuild.clear();
+                failedBuilds = 0;
+                retryAt = null;
+                ready = true;
+            }
+            log.info("Built backlog task indexes over {} tasks", count[0]);
+        } catch (RuntimeException e) {
+            Instant nextAttempt;
+            synchronized (this) {
+                indexers.forEach(BacklogTaskIndexer::finishRebuild);
+                rebuilding = false;
+                changedDuringRebuild.clear();
+                failedBuilds++;
+                retryAt = nextAttempt = clock.instant().plus(retryDelay(failedBuilds));
+            }
+            log.warn("Could not build backlog task indexes; task lookups will query the database until a retry at {}",
+                    nextAttempt, e);
+        }
+    }
+
+    // 30s, 1m, 2m, ... capped at 30m
+    static Duration retryDelay(int failedBuilds) {
+        int doublings = Math.min(failedBuilds - 1, 16);
+        Duration delay = INITIAL_RETRY_DELAY.multipliedBy(1L << doublings);
+        return delay.compareTo(MAX_RETRY_DELAY) > 0 ? MAX_RETRY_DELAY : delay;
+    }
+}
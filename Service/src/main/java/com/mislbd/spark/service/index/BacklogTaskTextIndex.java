@@ -0,0 +1,272 @@
+package com.mislbd.spark.service.index;
+
+import com.mislbd.spark.entity.BacklogTask;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over task titles and descriptions, ranked with BM25. Text is split on anything
+ * that is not a letter or digit and lowercased; title terms count twice. Every query term must
+ * match, and the last one also matches as a prefix so results follow the user's typing.
+ */
+@Component
+public class BacklogTaskTextIndex implements BacklogTaskIndexer {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_WEIGHT = 2;
+    // Most frequent completions used for the last query term
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    // Distinct terms and length of each indexed task, so it can be removed without reloading it
+    private final Map<Integer, IndexedTask> documents = new HashMap<>();
+    private long totalLength;
+
+    /**
+     * Lowercased letter-or-digit runs of {@code text}, in order.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean tokenChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            documents.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(BacklogTask task) {
+        int id = task.getId();
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        int length = 0;
+        for (String token : tokenize(task.getTitle())) {
+            frequencies.merge(token, TITLE_WEIGHT, Integer::sum);
+            length += TITLE_WEIGHT;
+        }
+        for (String token : tokenize(task.getDescription())) {
+            frequencies.merge(token, 1, Integer::sum);
+            length++;
+        }
+        lock.writeLock().lock();
+        try {
+            unlist(id);
+            if (frequencies.isEmpty()) {
+                return;
+            }
+            int documentLength = length;
+            frequencies.forEach((term, frequency) ->
+                    terms.computeIfAbsent(term, t -> new Postings()).put(id, frequency, documentLength));
+            documents.put(id, new IndexedTask(frequencies.keySet().toArray(new String[0]), documentLength));
+            totalLength += documentLength;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(int taskId) {
+        lock.writeLock().lock();
+        try {
+            unlist(taskId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the tasks matching every term of {@code query}, best match first (ties in id order).
+     * When {@code allowed} is given, only those tasks are considered.
+     */
+    public int[] search(String query, RoaringBitmap allowed) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return new int[0];
+        }
+        lock.readLock().lock();
+        try {
+            List<List<Postings>> termPostings = new ArrayList<>(queryTerms.size());
+            for (int i = 0; i < queryTerms.size(); i++) {
+                String term = queryTerms.get(i);
+                List<Postings> postings = i == queryTerms.size() - 1 ? completions(term) : exact(term);
+                if (postings.isEmpty()) {
+                    return new int[0];
+                }
+                termPostings.add(postings);
+            }
+
+            RoaringBitmap candidates = allowed != null ? allowed.clone() : null;
+            for (List<Postings> postings : termPostings) {
+                RoaringBitmap matching = new RoaringBitmap();
+                for (Postings posting : postings) {
+                    matching.addN(posting.documents, 0, posting.size);
+                }
+                candidates = candidates == null ? matching : RoaringBitmap.and(candidates, matching);
+            }
+            if (candidates.isEmpty()) {
+                return new int[0];
+            }
+
+            int[] ids = candidates.toArray();
+            double[] scores = new double[ids.length];
+            double averageLength = (double) totalLength / documents.size();
+            for (List<Postings> postings : termPostings) {
+                // A task matching several completions of the last term scores by its best one
+                double[] termScores = new double[ids.length];
+                for (Postings posting : postings) {
+                    double idf = Math.log(1 + (documents.size() - posting.size + 0.5) / (posting.size + 0.5));
+                    // Walk the shorter of the two sorted lists, binary searching the other
+                    if (ids.length < posting.size) {
+                        for (int i = 0; i < ids.length; i++) {
+                            int p = Arrays.binarySearch(posting.documents, 0, posting.size, ids[i]);
+                            if (p >= 0) {
+                                termScores[i] = Math.max(termScores[i], bm25(posting, p, idf, averageLength));
+                            }
+                        }
+                    } else {
+                        for (int p = 0; p < posting.size; p++) {
+                            int i = Arrays.binarySearch(ids, posting.documents[p]);
+                            if (i >= 0) {
+                                termScores[i] = Math.max(termScores[i], bm25(posting, p, idf, averageLength));
+                            }
+                        }
+                    }
+                }
+                for (int i = 0; i < ids.length; i++) {
+                    scores[i] += termScores[i];
+                }
+            }
+
+            Integer[] order = new Integer[ids.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            // ids are ascending, so index order breaks ties by id
+            Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> scores[i]).reversed().thenComparingInt(i -> i));
+            int[] ranked = new int[ids.length];
+            for (int i = 0; i < order.length; i++) {
+                ranked[i] = ids[order[i]];
+            }
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static double bm25(Postings postings, int position, double idf, double averageLength) {
+        double frequency = postings.frequencies[position];
+        double norm = K1 * (1 - B + B * postings.lengths[position] / averageLength);
+        return idf * frequency * (K1 + 1) / (frequency + norm);
+    }
+
+    private List<Postings> exact(String term) {
+        Postings postings = terms.get(term);
+        return postings != null ? List.of(postings) : List.of();
+    }
+
+    private List<Postings> completions(String prefix) {
+        List<Postings> completions = new ArrayList<>(terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values());
+        if (completions.size() > MAX_PREFIX_EXPANSIONS) {
+            completions.sort(Comparator.comparingInt((Postings postings) -> postings.size).reversed());
+            return completions.subList(0, MAX_PREFIX_EXPANSIONS);
+        }
+        return completions;
+    }
+
+    private void unlist(int id) {
+        IndexedTask previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        totalLength -= previous.length();
+        for (String term : previous.terms()) {
+            Postings postings = terms.get(term);
+            if (postings != null) {
+                postings.remove(id);
+                if (postings.size == 0) {
+                    terms.remove(term);
+                }
+            }
+        }
+    }
+
+    private record IndexedTask(String[] terms, int length) {
+    }
+
+    /**
+     * Sorted task ids containing one term, with the term's weighted frequency and the task's
+     * length in each. The length is repeated per term so scoring needs no per-task lookup.
+     */
+    private static final class Postings {
+        private int[] documents = new int[2];
+        private int[] frequencies = new int[2];
+        private int[] lengths = new int[2];
+        private int size;
+
+        void put(int document, int frequency, int length) {
+            int position = Arrays.binarySearch(documents, 0, size, document);
+            if (position < 0) {
+                position = -position - 1;
+                if (size == documents.length) {
+                    int capacity = size + (size >> 1) + 1;
+                    documents = Arrays.copyOf(documents, capacity);
+                    frequencies = Arrays.copyOf(frequencies, capacity);
+                    lengths = Arrays.copyOf(lengths, capacity);
+                }
+                System.arraycopy(documents, position, documents, position + 1, size - position);
+                System.arraycopy(frequencies, position, frequencies, position + 1, size - position);
+                System.arraycopy(lengths, position, lengths, position + 1, size - position);
+                size++;
+            }
+            documents[position] = document;
+            frequencies[position] = frequency;
+            lengths[position] = length;
+        }
+
+        void remove(int document) {
+            int position = Arrays.binarySearch(documents, 0, size, document);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(documents, position + 1, documents, position, size - position - 1);
+            System.arraycopy(frequencies, position + 1, frequencies, position, size - position - 1);
+            System.arraycopy(lengths, position + 1, lengths, position, size - position - 1);
+            size--;
+        }
+    }
+}
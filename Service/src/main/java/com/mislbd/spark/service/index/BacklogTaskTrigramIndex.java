@@ -0,0 +1,41 @@
+package com.mislbd.spark.service.index;
+
+import com.mislbd.spark.entity.BacklogTask;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Substring search over task titles and SP tracking ids, one {@link TrigramIndex} per field.
+ */
+@Component
+public class BacklogTaskTrigramIndex implements BacklogTaskIndexer {
+
+    private final TrigramIndex titles = new TrigramIndex();
+    private final TrigramIndex trackingIds = new TrigramIndex();
+
+    public RoaringBitmap titlesContaining(String text) {
+        return titles.search(text);
+    }
+
+    public RoaringBitmap trackingIdsContaining(String text) {
+        return trackingIds.search(text);
+    }
+
+    @Override
+    public void clear() {
+        titles.clear();
+        trackingIds.clear();
+    }
+
+    @Override
+    public void index(BacklogTask task) {
+        titles.put(task.getId(), task.getTitle());
+        trackingIds.put(task.getId(), task.getSptrackingId());
+    }
+
+    @Override
+    public void remove(int taskId) {
+        titles.remove(taskId);
+        trackingIds.remove(taskId);
+    }
+}
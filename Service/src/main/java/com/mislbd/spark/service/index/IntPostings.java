@@ -0,0 +1,140 @@
+package com.mislbd.spark.service.index;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Maps an int key to the sorted ids of the rows having that key. Each id array is replaced, never
+ * modified, on write, so readers get a consistent snapshot without locking. Writes must be
+ * serialized by the caller.
+ *
+ * <p>Replacing the array costs a copy per write, which is fine for single updates but quadratic
+ * for a full load. Between {@link #startBulkLoad()} and {@link #finishBulkLoad()} writes go to
+ * growable per-key buffers instead (appending ascending ids is amortized constant time) and the
+ * arrays are published at the end; readers see no ids until then.
+ */
+final class IntPostings {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final ConcurrentMap<Integer, int[]> postings = new ConcurrentHashMap<>();
+    // Buffers of a bulk load in progress; null otherwise
+    private Map<Integer, IdBuffer> loading;
+
+    /**
+     * Sorted ids for {@code key}; the returned array must not be modified.
+     */
+    int[] get(int key) {
+        return postings.getOrDefault(key, EMPTY);
+    }
+
+    void add(int key, int id) {
+        if (loading != null) {
+            loading.computeIfAbsent(key, k -> new IdBuffer()).add(id);
+            return;
+        }
+        int[] ids = postings.getOrDefault(key, EMPTY);
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return;
+        }
+        int insertAt = -position - 1;
+        int[] updated = new int[ids.length + 1];
+        System.arraycopy(ids, 0, updated, 0, insertAt);
+        updated[insertAt] = id;
+        System.arraycopy(ids, insertAt, updated, insertAt + 1, ids.length - insertAt);
+        postings.put(key, updated);
+    }
+
+    void remove(int key, int id) {
+        if (loading != null) {
+            IdBuffer buffer = loading.get(key);
+            if (buffer != null) {
+                buffer.remove(id);
+            }
+            return;
+        }
+        int[] ids = postings.get(key);
+        if (ids == null) {
+            return;
+        }
+        int position = Arrays.binarySearch(ids, id);
+        if (position < 0) {
+            return;
+        }
+        if (ids.length == 1) {
+            postings.remove(key);
+            return;
+        }
+        int[] updated = new int[ids.length - 1];
+        System.arraycopy(ids, 0, updated, 0, position);
+        System.arraycopy(ids, position + 1, updated, position, ids.length - position - 1);
+        postings.put(key, updated);
+    }
+
+    void clear() {
+        postings.clear();
+        if (loading != null) {
+            loading.clear();
+        }
+    }
+
+    /**
+     * Clears the postings and buffers writes until {@link #finishBulkLoad()}.
+     */
+    void startBulkLoad() {
+        postings.clear();
+        loading = new HashMap<>();
+    }
+
+    /**
+     * Publishes the buffered ids; a no-op when no bulk load is in progress.
+     */
+    void finishBulkLoad() {
+        if (loading == null) {
+            return;
+        }
+        loading.forEach((key, buffer) -> {
+            if (buffer.size > 0) {
+                postings.put(key, Arrays.copyOf(buffer.ids, buffer.size));
+            }
+        });
+        loading = null;
+    }
+
+    /**
+     * Sorted, distinct ids of one key during a bulk load.
+     */
+    private static final class IdBuffer {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            int insertAt = size;
+            if (size > 0 && id <= ids[size - 1]) {
+                int position = Arrays.binarySearch(ids, 0, size, id);
+                if (position >= 0) {
+                    return;
+                }
+                insertAt = -position - 1;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                size--;
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.mislbd.spark.service.index;
+
+import com.mislbd.spark.entity.BacklogTask;
+
+import java.util.function.Function;
+
+/**
+ * Task fields offered as search facets. {@link #getKey()} names the facet in requests and responses.
+ */
+public enum TaskFacet {
+    STATUS("status", BacklogTask::getStatus),
+    PRIORITY("priority", BacklogTask::getPriority),
+    TASK_TYPE("taskType", BacklogTask::getTasktypeid),
+    CLIENT("client", BacklogTask::getPrimaryClient),
+    MODULE("module", BacklogTask::getProductModuleId),
+    TEAM("team", BacklogTask::getTeamId);
+
+    private final String key;
+    private final Function<BacklogTask, Object> field;
+
+    TaskFacet(String key, Function<BacklogTask, Object> field) {
+        this.key = key;
+        this.field = field;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * The task's value for this facet as a string, or {@code null} if it has none.
+     */
+    String valueOf(BacklogTask task) {
+        Object value = field.apply(task);
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.mislbd.spark.service.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Map;
+
+/**
+ * Ids of the tasks matching a facet selection, and for each facet the number of tasks per value
+ * under the selection on the other facets.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskFacetSearchResult {
+    private final RoaringBitmap matches;
+    private final Map<String, Map<String, Integer>> counts;
+}
@@ -0,0 +1,151 @@
+package com.mislbd.spark.service.index;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Case-insensitive substring search over one or more text fields per id. Each lowercased field is
+ * broken into overlapping three-character grams with a bitmap of ids per gram; a query is answered
+ * by intersecting the bitmaps of its own grams and checking the few candidates left against the
+ * stored text. Queries shorter than three characters are checked against every stored entry.
+ */
+public final class TrigramIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, RoaringBitmap> postings = new HashMap<>();
+    // Lowercased fields of each id, for verifying candidates and removing the id again
+    private final Map<Integer, String[]> documents = new HashMap<>();
+    private final RoaringBitmap all = new RoaringBitmap();
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            all.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes {@code fields} (nulls are skipped) under {@code id}, replacing what it had before.
+     */
+    public void put(int id, String... fields) {
+        List<String> normalized = new ArrayList<>(fields.length);
+        for (String field : fields) {
+            if (field != null && !field.isEmpty()) {
+                normalized.add(field.toLowerCase(Locale.ROOT));
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            unlist(id);
+            if (normalized.isEmpty()) {
+                return;
+            }
+            String[] stored = normalized.toArray(new String[0]);
+            for (long gram : grams(stored)) {
+                postings.computeIfAbsent(gram, g -> new RoaringBitmap()).add(id);
+            }
+            documents.put(id, stored);
+            all.add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            unlist(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids with a field containing {@code query}, ignoring case; empty for a blank query.
+     */
+    public RoaringBitmap search(String query) {
+        RoaringBitmap matches = new RoaringBitmap();
+        if (query == null || query.isBlank()) {
+            return matches;
+        }
+        String needle = query.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            RoaringBitmap candidates = candidates(needle);
+            candidates.forEach((int id) -> {
+                for (String field : documents.get(id)) {
+                    if (field.contains(needle)) {
+                        matches.add(id);
+                        return;
+                    }
+                }
+            });
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap candidates(String needle) {
+        if (needle.length() < 3) {
+            return all;
+        }
+        List<RoaringBitmap> gramPostings = new ArrayList<>();
+        for (long gram : grams(new String[]{needle})) {
+            RoaringBitmap ids = postings.get(gram);
+            if (ids == null) {
+                return new RoaringBitmap();
+            }
+            gramPostings.add(ids);
+        }
+        // Smallest first, so the running intersection shrinks as early as possible
+        gramPostings.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+        RoaringBitmap candidates = gramPostings.get(0);
+        for (int i = 1; i < gramPostings.size() && !candidates.isEmpty(); i++) {
+            candidates = RoaringBitmap.and(candidates, gramPostings.get(i));
+        }
+        return candidates;
+    }
+
+    private void unlist(int id) {
+        String[] previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        all.remove(id);
+        for (long gram : grams(previous)) {
+            RoaringBitmap ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    // Distinct grams of the fields; grams never span two fields
+    private static Set<Long> grams(String[] fields) {
+        Set<Long> grams = new HashSet<>();
+        for (String field : fields) {
+            for (int i = 0; i + 3 <= field.length(); i++) {
+                grams.add((long) field.charAt(i) << 32 | (long) field.charAt(i + 1) << 16 | field.charAt(i + 2));
+            }
+        }
+        return grams;
+    }
+}
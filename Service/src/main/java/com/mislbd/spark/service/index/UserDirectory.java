@@ -0,0 +1,227 @@
+package com.mislbd.spark.service.index;
+
+import com.mislbd.spark.dto.UserSuggestionDto;
+import com.mislbd.spark.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Prefix lookup of active users for autocomplete, keyed by full name, last name, username and
+ * email. The keys are held in one sorted array that readers binary search without locking; a
+ * change copies the array with the user's old keys cut out and the new ones spliced in at their
+ * binary searched positions, and publishes the copy. Loaded once at startup and kept current by
+ * {@code UserService}; until then {@link #suggest} is empty.
+ */
+@Slf4j
+@Component
+public class UserDirectory {
+
+    private static final String ACTIVE = "ACTIVE";
+
+    private volatile Entry[] entries = new Entry[0];
+    private volatile boolean ready;
+    // Keys of each listed user, so a change can find and drop them; guarded by this
+    private final Map<Long, String[]> keysByUser = new HashMap<>();
+    // Users written while a rebuild is running; the rebuild must not overwrite them with the rows it read earlier
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+    private boolean rebuilding;
+
+    /**
+     * Empties the directory before the users are read for {@link #finishRebuild}; writes from
+     * here on are kept over the rows read.
+     */
+    public synchronized void startRebuild() {
+        keysByUser.clear();
+        entries = new Entry[0];
+        changedDuringRebuild.clear();
+        rebuilding = true;
+        ready = false;
+    }
+
+    /**
+     * Ends a rebuild whose read failed; the directory keeps the writes made since
+     * {@link #startRebuild} but stays not ready until a rebuild finishes.
+     */
+    public synchronized void abortRebuild() {
+        changedDuringRebuild.clear();
+        rebuilding = false;
+    }
+
+    public synchronized void finishRebuild(List<User> allUsers) {
+        List<Entry> listed = new ArrayList<>(Arrays.asList(entries));
+        for (User user : allUsers) {
+            if (isActive(user) && !changedDuringRebuild.contains(user.getId())) {
+                UserSuggestionDto suggestion = toSuggestion(user);
+                String[] keys = keys(user);
+                keysByUser.put(user.getId(), keys);
+                for (String key : keys) {
+                    listed.add(new Entry(key, suggestion));
+                }
+            }
+        }
+        Entry[] sorted = listed.toArray(new Entry[0]);
+        Arrays.sort(sorted);
+        entries = sorted;
+        changedDuringRebuild.clear();
+        rebuilding = false;
+        ready = true;
+        log.info("Built user directory over {} active users", keysByUser.size());
+    }
+
+    /**
+     * Lists {@code user} under its current name, username and email, or drops it when it is no
+     * longer active.
+     */
+    public synchronized void put(User user) {
+        if (!isActive(user)) {
+            remove(user.getId());
+            return;
+        }
+        if (rebuilding) {
+            changedDuringRebuild.add(user.getId());
+        }
+        UserSuggestionDto suggestion = toSuggestion(user);
+        String[] keys = keys(user);
+        Entry[] added = new Entry[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            added[i] = new Entry(keys[i], suggestion);
+        }
+        Arrays.sort(added);
+        entries = insert(without(entries, user.getId(), keysByUser.put(user.getId(), keys)), added);
+    }
+
+    public synchronized void remove(Long userId) {
+        if (rebuilding) {
+            changedDuringRebuild.add(userId);
+        }
+        String[] previous = keysByUser.remove(userId);
+        if (previous != null) {
+            entries = without(entries, userId, previous);
+        }
+    }
+
+    /**
+     * Up to {@code limit} distinct active users with a key starting with {@code prefix}, ignoring
+     * case, in key order; empty while the directory is still being built.
+     */
+    public Optional<List<UserSuggestionDto>> suggest(String prefix, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        String normalized = normalize(prefix);
+        Entry[] snapshot = entries;
+        Map<Long, UserSuggestionDto> suggestions = new LinkedHashMap<>();
+        for (int i = lowerBound(snapshot, normalized);
+             i < snapshot.length && suggestions.size() < limit && snapshot[i].key().startsWith(normalized); i++) {
+            suggestions.putIfAbsent(snapshot[i].suggestion().getId(), snapshot[i].suggestion());
+        }
+        return Optional.of(new ArrayList<>(suggestions.values()));
+    }
+
+    // Copy of sorted without the user's entries under keys, each found by binary search
+    private static Entry[] without(Entry[] sorted, Long userId, String[] keys) {
+        if (keys == null) {
+            return sorted;
+        }
+        UserSuggestionDto probe = UserSuggestionDto.builder().id(userId).build();
+        int[] positions = Arrays.stream(keys)
+                .mapToInt(key -> Arrays.binarySearch(sorted, new Entry(key, probe)))
+                .filter(position -> position >= 0)
+                .sorted()
+                .toArray();
+        Entry[] result = new Entry[sorted.length - positions.length];
+        int from = 0;
+        int to = 0;
+        for (int position : positions) {
+            System.arraycopy(sorted, from, result, to, position - from);
+            to += position - from;
+            from = position + 1;
+        }
+        System.arraycopy(sorted, from, result, to, sorted.length - from);
+        return result;
+    }
+
+    // Copy of sorted with the sorted added entries spliced in at their binary searched positions
+    private static Entry[] insert(Entry[] sorted, Entry[] added) {
+        Entry[] result = new Entry[sorted.length + added.length];
+        int from = 0;
+        int to = 0;
+        for (Entry entry : added) {
+            int position = -Arrays.binarySearch(sorted, entry) - 1;
+            System.arraycopy(sorted, from, result, to, position - from);
+            to += position - from;
+            from = position;
+            result[to++] = entry;
+        }
+        System.arraycopy(sorted, from, result, to, sorted.length - from);
+        return result;
+    }
+
+    // First position whose key is not before key
+    private static int lowerBound(Entry[] sorted, String key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].key().compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean isActive(User user) {
+        return ACTIVE.equalsIgnoreCase(user.getActiveStatus());
+    }
+
+    private static UserSuggestionDto toSuggestion(User user) {
+        return UserSuggestionDto.builder()
+                .id(user.getId())
+                .name(fullName(user))
+                .email(user.getEmail())
+                .build();
+    }
+
+    private static String fullName(User user) {
+        return Stream.of(user.getFirstName(), user.getLastName())
+                .filter(part -> part != null && !part.isBlank())
+                .map(String::trim)
+                .collect(Collectors.joining(" "));
+    }
+
+    // Full name also covers the first name; the last name is listed on its own
+    private static String[] keys(User user) {
+        return Stream.of(fullName(user), user.getLastName(), user.getUsername(), user.getEmail())
+                .filter(key -> key != null && !key.isBlank())
+                .map(UserDirectory::normalize)
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(String key, UserSuggestionDto suggestion) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            int byKey = key.compareTo(other.key);
+            return byKey != 0 ? byKey : suggestion.getId().compareTo(other.suggestion.getId());
+        }
+    }
+}
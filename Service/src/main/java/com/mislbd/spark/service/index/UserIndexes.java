@@ -0,0 +1,90 @@
+package com.mislbd.spark.service.index;
+
+import com.mislbd.spark.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Builds the {@link UserSearchIndex} and {@link UserDirectory} together from one read of the
+ * users. Until a build has finished both stay empty and callers query the database instead.
+ *
+ * <p>A failed build is retried with the same backoff as {@link BacklogTaskIndexes}:
+ * {@link #isRetryDue()} turns true once the delay since the last failure has passed, and the
+ * caller runs {@link #rebuild} again.
+ */
+@Slf4j
+@Component
+public class UserIndexes {
+
+    private final UserSearchIndex searchIndex;
+    private final UserDirectory directory;
+    private final Clock clock;
+    private boolean ready;
+    private boolean rebuilding;
+    private int failedBuilds;
+    private Instant retryAt;
+
+    @Autowired
+    public UserIndexes(UserSearchIndex searchIndex, UserDirectory directory) {
+        this(searchIndex, directory, Clock.systemUTC());
+    }
+
+    UserIndexes(UserSearchIndex searchIndex, UserDirectory directory, Clock clock) {
+        this.searchIndex = searchIndex;
+        this.directory = directory;
+        this.clock = clock;
+    }
+
+    /**
+     * True when the last build failed, no build is running and the backoff delay has passed.
+     */
+    public synchronized boolean isRetryDue() {
+        return !ready && !rebuilding && retryAt != null && !clock.instant().isBefore(retryAt);
+    }
+
+    /**
+     * Rebuilds both indexes from the users {@code source} reads. Does nothing while another
+     * rebuild is running.
+     */
+    public void rebuild(Supplier<List<User>> source) {
+        synchronized (this) {
+            if (rebuilding) {
+                log.info("User indexes are already being built");
+                return;
+            }
+            ready = false;
+            rebuilding = true;
+        }
+        // Started before the read, so writes committed meanwhile are not overwritten by older rows
+        searchIndex.startRebuild();
+        directory.startRebuild();
+        try {
+            List<User> users = source.get();
+            searchIndex.finishRebuild(users);
+            directory.finishRebuild(users);
+            synchronized (this) {
+                rebuilding = false;
+                failedBuilds = 0;
+                retryAt = null;
+                ready = true;
+            }
+        } catch (RuntimeException e) {
+            searchIndex.abortRebuild();
+            directory.abortRebuild();
+            Instant nextAttempt;
+            synchronized (this) {
+                rebuilding = false;
+                failedBuilds++;
+                retryAt = nextAttempt = clock.instant().plus(BacklogTaskIndexes.retryDelay(failedBuilds));
+            }
+            log.warn("Could not build user indexes; user search will query the database until a retry at {}",
+                    nextAttempt, e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.mislbd.spark.service.index;
+
+import com.mislbd.spark.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Substring search over users' first and last name, username, email and employee id. Loaded once
+ * at startup and kept current by {@code UserService}; until then {@link #search} is empty.
+ *
+ * <p>The trigram index is keyed by int, so a user whose id does not fit is left out; while any
+ * such user exists {@link #search} is empty as well and callers fall back to the database.
+ */
+@Slf4j
+@Component
+public class UserSearchIndex {
+
+    private final TrigramIndex users = new TrigramIndex();
+    // Users written while a rebuild is running; the rebuild must not overwrite them with the rows it read earlier
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+    // Users whose id does not fit in an int; both sets and rebuilding are guarded by this
+    private final Set<Long> unindexable = new HashSet<>();
+    private boolean rebuilding;
+    private volatile boolean ready;
+    // False while a user is left out of the index
+    private volatile boolean complete = true;
+
+    /**
+     * Empties the index before the users are read for {@link #finishRebuild}; writes from here on
+     * are kept over the rows read.
+     */
+    public synchronized void startRebuild() {
+        users.clear();
+        unindexable.clear();
+        complete = true;
+        changedDuringRebuild.clear();
+        rebuilding = true;
+        ready = false;
+    }
+
+    public synchronized void finishRebuild(List<User> allUsers) {
+        for (User user : allUsers) {
+            if (!changedDuringRebuild.contains(user.getId())) {
+                index(user);
+            }
+        }
+        changedDuringRebuild.clear();
+        rebuilding = false;
+        ready = true;
+        log.info("Built user search index over {} users", allUsers.size());
+    }
+
+    /**
+     * Ends a rebuild whose read failed; the index keeps the writes made since {@link #startRebuild}
+     * but stays not ready until a rebuild finishes.
+     */
+    public synchronized void abortRebuild() {
+        changedDuringRebuild.clear();
+        rebuilding = false;
+    }
+
+    public synchronized void put(User user) {
+        if (rebuilding) {
+            changedDuringRebuild.add(user.getId());
+        }
+        index(user);
+    }
+
+    public synchronized void remove(Long userId) {
+        if (rebuilding) {
+            changedDuringRebuild.add(userId);
+        }
+        if (unindexable.remove(userId)) {
+            complete = unindexable.isEmpty();
+        } else if (fitsInt(userId)) {
+            users.remove(userId.intValue());
+        }
+    }
+
+    /**
+     * Ids of the users with a field containing {@code text}, ignoring case; empty while the index
+     * is still being built or does not cover every user.
+     */
+    public Optional<RoaringBitmap> search(String text) {
+        return ready && complete ? Optional.of(users.search(text)) : Optional.empty();
+    }
+
+    private void index(User user) {
+        if (!fitsInt(user.getId())) {
+            complete = false;
+            if (unindexable.add(user.getId())) {
+                log.warn("User {} is not in the user search index; user search will query the database", user.getId());
+            }
+            return;
+        }
+        users.put(user.getId().intValue(),
+                user.getFirstName(), user.getLastName(), user.getUsername(), user.getEmail(), user.getEmployeeId());
+    }
+
+    private static boolean fitsInt(Long id) {
+        return id >= 0 && id <= Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,52 @@
+package com.mislbd.spark.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Content-addressed storage for document bytes. Content is keyed by its SHA-256 hex digest,
+ * so storing the same bytes twice keeps a single copy. Reference counting is left to the caller.
+ *
+ * <p>Storing is two-phase: {@link #stage} receives and hashes the bytes, {@link #publish} makes
+ * them readable under their hash. Callers can take a per-hash lock in between.
+ *
+ * <p>Small derivatives of a content (thumbnails, text excerpts) are kept next to it under a name
+ * and are removed together with it.
+ */
+public interface DocumentContentStore {
+
+    StagedContent stage(InputStream content) throws IOException;
+
+    /**
+     * Stages a complete file the caller has already written and hashed. The file is moved, not copied.
+     */
+    StagedContent stage(Path file, String hash, long size) throws IOException;
+
+    /**
+     * Makes staged content readable under its hash. Content already present is kept as is.
+     */
+    void publish(StagedContent staged) throws IOException;
+
+    void discard(StagedContent staged) throws IOException;
+
+    boolean exists(String hash);
+
+    /**
+     * Copies {@code length} bytes starting at {@code offset} of the stored content to {@code target}.
+     */
+    void copyTo(String hash, long offset, long length, WritableByteChannel target) throws IOException;
+
+    InputStream open(String hash) throws IOException;
+
+    void storeDerivative(String hash, String name, byte[] data) throws IOException;
+
+    Optional<byte[]> readDerivative(String hash, String name) throws IOException;
+
+    /**
+     * Deletes the content and all of its derivatives.
+     */
+    void delete(String hash) throws IOException;
+}
@@ -0,0 +1,172 @@
+package com.mislbd.spark.service.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Stores each distinct content once under {@code <root>/<aa>/<bb>/<sha256>}. Uploads are staged
+ * in a temporary file while hashed and then moved into place atomically, so a file at its final
+ * path is always complete.
+ */
+@Slf4j
+@Component
+public class FileSystemDocumentContentStore implements DocumentContentStore {
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern DERIVATIVE_NAME = Pattern.compile("[a-z0-9]+(\\.[a-z0-9]+)*");
+
+    private final Path root;
+    private final Path tmp;
+
+    public FileSystemDocumentContentStore(@Value("${spark.documents.store-root}") String root) throws IOException {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.tmp = this.root.resolve("tmp");
+        Files.createDirectories(tmp);
+    }
+
+    @Override
+    public StagedContent stage(InputStream content) throws IOException {
+        Path temp = Files.createTempFile(tmp, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (DigestInputStream in = new DigestInputStream(content, digest);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                size = in.transferTo(out);
+            }
+            return new StagedContent(HexFormat.of().formatHex(digest.digest()), size, temp);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    @Override
+    public StagedContent stage(Path file, String hash, long size) throws IOException {
+        path(hash); // validates the hash
+        Path temp = Files.createTempFile(tmp, "upload-", ".part");
+        Files.move(file, temp, StandardCopyOption.REPLACE_EXISTING);
+        return new StagedContent(hash, size, temp);
+    }
+
+    @Override
+    public void publish(StagedContent staged) throws IOException {
+        Path target = path(staged.getHash());
+        if (!Files.exists(target)) {
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(staged.getFile(), target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // published concurrently by another upload of the same content
+            }
+        }
+        Files.deleteIfExists(staged.getFile());
+    }
+
+    @Override
+    public void discard(StagedContent staged) throws IOException {
+        Files.deleteIfExists(staged.getFile());
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return Files.exists(path(hash));
+    }
+
+    @Override
+    public void copyTo(String hash, long offset, long length, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(path(hash), StandardOpenOption.READ)) {
+            long position = offset;
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    throw new IOException("Stored content " + hash + " is shorter than expected");
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    @Override
+    public InputStream open(String hash) throws IOException {
+        return Files.newInputStream(path(hash));
+    }
+
+    @Override
+    public void storeDerivative(String hash, String name, byte[] data) throws IOException {
+        Path target = derivativePath(hash, name);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(tmp, "derivative-", ".part");
+        try {
+            Files.write(temp, data);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Optional<byte[]> readDerivative(String hash, String name) throws IOException {
+        Path file = derivativePath(hash, name);
+        return Files.exists(file) ? Optional.of(Files.readAllBytes(file)) : Optional.empty();
+    }
+
+    @Override
+    public void delete(String hash) throws IOException {
+        Path content = path(hash);
+        try (DirectoryStream<Path> derivatives = Files.newDirectoryStream(content.getParent(), hash + ".*")) {
+            for (Path derivative : derivatives) {
+                Files.deleteIfExists(derivative);
+            }
+        } catch (NoSuchFileException e) {
+            // nothing stored under this prefix
+        }
+        if (Files.deleteIfExists(content)) {
+            log.info("Deleted unreferenced document content {}", hash);
+        }
+    }
+
+    private Path derivativePath(String hash, String name) {
+        if (name == null || !DERIVATIVE_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid derivative name: " + name);
+        }
+        return path(hash).resolveSibling(hash + "." + name);
+    }
+
+    private Path path(String hash) {
+        if (hash == null || !SHA256_HEX.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid content hash: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
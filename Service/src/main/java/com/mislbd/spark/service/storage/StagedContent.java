@@ -0,0 +1,19 @@
+package com.mislbd.spark.service.storage;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * Content that has been received and hashed but not yet published to the store.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class StagedContent {
+    private final String hash;
+    private final long size;
+    @Getter(AccessLevel.PACKAGE)
+    private final Path file;
+}
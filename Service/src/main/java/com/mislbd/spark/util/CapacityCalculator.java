@@ -0,0 +1,67 @@
+package com.mislbd.spark.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Capacity arithmetic in fixed point. Hours are held as {@code long} centi-hours and percentages
+ * as centi-percent, which matches the scale-2 capacity columns; results are rounded HALF_UP to
+ * scale 2 exactly as the BigDecimal calculation did. Values are converted to {@link BigDecimal}
+ * only at the entity and DTO boundary.
+ */
+public final class CapacityCalculator {
+
+    private static final int SCALE = 2;
+    private static final long ONE_HUNDRED_PERCENT = 100_00;
+
+    private CapacityCalculator() {
+    }
+
+    /**
+     * Converts hours or a percentage to hundredths, rounding HALF_UP; {@code null} is zero.
+     */
+    public static long toCenti(BigDecimal value) {
+        return value != null ? value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact() : 0;
+    }
+
+    public static BigDecimal fromCenti(long centi) {
+        return BigDecimal.valueOf(centi, SCALE);
+    }
+
+    /**
+     * Potential hours of a member over {@code sprintDays} before leave and capacity are applied.
+     */
+    public static long totalCentiHours(int sprintDays, long dailyCentiHours) {
+        return Math.max(0, sprintDays) * dailyCentiHours;
+    }
+
+    /**
+     * Hours available on {@code workingDays} at {@code capacityCentiPercent} of the daily hours.
+     */
+    public static long availableCentiHours(int workingDays, long dailyCentiHours, long capacityCentiPercent) {
+        // centi-hours * centi-percent is in units of 1/10^4 centi-hours
+        return divideHalfUp(Math.max(0, workingDays) * dailyCentiHours * capacityCentiPercent, ONE_HUNDRED_PERCENT);
+    }
+
+    /**
+     * {@code part} as a percentage of {@code whole} in centi-percent, or zero when {@code whole} is zero.
+     */
+    public static long percentOf(long partCentiHours, long wholeCentiHours) {
+        if (wholeCentiHours == 0) {
+            return 0;
+        }
+        return divideHalfUp(partCentiHours * ONE_HUNDRED_PERCENT, wholeCentiHours);
+    }
+
+    /**
+     * Integer division rounding half away from zero, i.e. {@link RoundingMode#HALF_UP}.
+     */
+    static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= Math.abs(divisor)) {
+            quotient += Long.signum(dividend) * Long.signum(divisor);
+        }
+        return quotient;
+    }
+}
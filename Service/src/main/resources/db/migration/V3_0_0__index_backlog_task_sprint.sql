@@ -0,0 +1,11 @@
+-- Index backlog tasks by sprint so per-sprint aggregates (sprint dashboard user progress)
+-- read only the sprint's rows. ASSIGNEDTO is included so the GROUP BY can be served from the index.
+BEGIN
+  EXECUTE IMMEDIATE 'CREATE INDEX IDX_BACKLOG_TASK_SPRINT ON SPARK_BACKLOG_TASK(SPRINTID, ASSIGNEDTO)';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE NOT IN (-955, -1408) THEN -- name already used / columns already indexed
+      RAISE;
+    END IF;
+END;
+/
@@ -0,0 +1,16 @@
+-- Store the attachment size next to the BLOB so document listings and downloads
+-- (Content-Length, Range) never have to open the LOB to learn its length.
+BEGIN
+  EXECUTE IMMEDIATE 'ALTER TABLE SPARK_MITS_DOCUMENTS ADD (FILE_SIZE NUMBER(19))';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE != -1430 THEN -- column already exists
+      RAISE;
+    END IF;
+END;
+/
+
+UPDATE SPARK_MITS_DOCUMENTS
+   SET FILE_SIZE = DBMS_LOB.GETLENGTH(DOCUMENT)
+ WHERE FILE_SIZE IS NULL
+   AND DOCUMENT IS NOT NULL;
@@ -0,0 +1,22 @@
+-- Document content moves to the content-addressed file store; rows keep the SHA-256 pointer.
+-- Rows without a hash keep serving their existing DOCUMENT BLOB.
+BEGIN
+  EXECUTE IMMEDIATE 'ALTER TABLE SPARK_MITS_DOCUMENTS ADD (CONTENT_HASH VARCHAR2(64))';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE != -1430 THEN -- column already exists
+      RAISE;
+    END IF;
+END;
+/
+
+-- Reference counting looks rows up by hash
+BEGIN
+  EXECUTE IMMEDIATE 'CREATE INDEX IDX_MITS_DOCUMENTS_HASH ON SPARK_MITS_DOCUMENTS(CONTENT_HASH)';
+EXCEPTION
+  WHEN OTHERS THEN
+    IF SQLCODE NOT IN (-955, -1408) THEN -- name already used / columns already indexed
+      RAISE;
+    END IF;
+END;
+/
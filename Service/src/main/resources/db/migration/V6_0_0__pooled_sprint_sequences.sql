@@ -0,0 +1,22 @@
+-- SprintInfo and SprintUserCapacity ids use Hibernate's pooled optimizer (allocationSize = 50):
+-- one NEXTVAL reserves 50 ids, so the sequence increment must match.
+BEGIN
+  EXECUTE IMMEDIATE 'ALTER SEQUENCE SPARK_SPRINT_INFO_SEQ INCREMENT BY 50';
+END;
+/
+
+DECLARE
+  seq_count INTEGER;
+  next_id   NUMBER;
+BEGIN
+  SELECT COUNT(*) INTO seq_count FROM all_sequences WHERE sequence_name = 'SPARK_SPRINT_USER_CAP_SEQ';
+  IF seq_count = 0 THEN
+    -- The pooled optimizer hands out (value - 49) .. value for each NEXTVAL, so the first block
+    -- starts right after the existing rows when the first value is MAX(ID) + 50
+    EXECUTE IMMEDIATE 'SELECT NVL(MAX(ID), 0) + 50 FROM SPARK_SPRINT_USER_CAPACITY' INTO next_id;
+    EXECUTE IMMEDIATE 'CREATE SEQUENCE SPARK_SPRINT_USER_CAP_SEQ START WITH ' || next_id || ' INCREMENT BY 50';
+  ELSE
+    EXECUTE IMMEDIATE 'ALTER SEQUENCE SPARK_SPRINT_USER_CAP_SEQ INCREMENT BY 50';
+  END IF;
+END;
+/
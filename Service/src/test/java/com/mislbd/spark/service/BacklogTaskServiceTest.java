@@ -0,0 +1,135 @@
+package com.mislbd.spark.service;
+
+import com.mislbd.spark.dto.TaskSearchCriteria;
+import com.mislbd.spark.entity.BacklogTask;
+import com.mislbd.spark.repository.BacklogTaskRepository;
+import com.mislbd.spark.service.index.BacklogTaskFacetIndex;
+import com.mislbd.spark.service.index.BacklogTaskFieldIndex;
+import com.mislbd.spark.service.index.BacklogTaskIndexes;
+import com.mislbd.spark.service.index.BacklogTaskTextIndex;
+import com.mislbd.spark.service.index.BacklogTaskTrigramIndex;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BacklogTaskServiceTest {
+
+    private static final int SPRINT = 7;
+
+    private final BacklogTaskRepository repository = mock(BacklogTaskRepository.class);
+    private final BacklogTaskFieldIndex fieldIndex = new BacklogTaskFieldIndex();
+    private final BacklogTaskFacetIndex facetIndex = new BacklogTaskFacetIndex();
+    private final BacklogTaskIndexes taskIndexes = new BacklogTaskIndexes(List.of(fieldIndex, facetIndex));
+    private BacklogTaskService service;
+    private AutoCloseable mocks;
+
+    @Captor
+    private ArgumentCaptor<Iterable<Integer>> chunks;
+
+    @BeforeEach
+    void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+        service = new BacklogTaskService(repository, mock(EntityManager.class), taskIndexes, fieldIndex,
+                facetIndex, new BacklogTaskTextIndex(), new BacklogTaskTrigramIndex(),
+                mock(PlatformTransactionManager.class));
+        // The database returns rows in no particular order
+        when(repository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<BacklogTask> rows = new ArrayList<>();
+            for (Integer id : invocation.<Iterable<Integer>>getArgument(0)) {
+                if (id % 100 != 0) { // every hundredth task was deleted meanwhile
+                    rows.add(task(id));
+                }
+            }
+            Collections.shuffle(rows, new Random(42));
+            return rows;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mocks.close();
+    }
+
+    @Test
+    void indexedLookupFetchesInChunksOfAThousandAndKeepsIdOrder() {
+        taskIndexes.rebuild(sink -> IntStream.rangeClosed(1, 2_500).forEach(id -> sink.accept(task(id))));
+
+        List<BacklogTask> tasks = service.getBacklogTasksBySprint(SPRINT);
+
+        verify(repository, times(3)).findAllById(chunks.capture());
+        assertThat(chunks.getAllValues()).extracting(chunk -> ((List<Integer>) chunk).size())
+                .containsExactly(1_000, 1_000, 500);
+        assertThat(tasks).extracting(BacklogTask::getId)
+                .hasSize(2_475)
+                .isSorted()
+                .doesNotContain(100, 2_500);
+    }
+
+    @Test
+    void lookupQueriesTheDatabaseUntilTheIndexesAreReady() {
+        when(repository.findBySprintidOrderByIdAsc(SPRINT)).thenReturn(List.of(task(1)));
+
+        assertThat(service.getBacklogTasksBySprint(SPRINT)).extracting(BacklogTask::getId).containsExactly(1);
+        verify(repository, times(0)).findAllById(anyIterable());
+    }
+
+    @Test
+    void searchSortedByIdPagesTheIndexMatchesWithoutQuerying() {
+        taskIndexes.rebuild(sink -> IntStream.rangeClosed(1, 50).forEach(id -> sink.accept(task(id))));
+        TaskSearchCriteria criteria = TaskSearchCriteria.builder().status("OPEN").sprintId(SPRINT).build();
+
+        Page<BacklogTask> page = service.searchBacklogTasks(criteria,
+                PageRequest.of(1, 5, Sort.by(Sort.Direction.DESC, "id").and(Sort.by("id"))));
+
+        assertThat(page.getTotalElements()).isEqualTo(25);
+        assertThat(page.getContent()).extracting(BacklogTask::getId).containsExactly(39, 37, 35, 33, 31);
+        verify(repository, never()).findAll(anySpecification(), any(Pageable.class));
+    }
+
+    @Test
+    void searchSortedByAnotherKeyQueriesByMatchingIds() {
+        taskIndexes.rebuild(sink -> IntStream.rangeClosed(1, 50).forEach(id -> sink.accept(task(id))));
+        TaskSearchCriteria criteria = TaskSearchCriteria.builder().status("DONE").build();
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("title"));
+        when(repository.findAll(anySpecification(), eq(pageRequest))).thenReturn(Page.empty(pageRequest));
+
+        service.searchBacklogTasks(criteria, pageRequest);
+
+        verify(repository).findAll(anySpecification(), eq(pageRequest));
+        verify(repository, never()).findAllById(anyIterable());
+    }
+
+    private static Specification<BacklogTask> anySpecification() {
+        return any();
+    }
+
+    private static BacklogTask task(int id) {
+        return BacklogTask.builder().id(id).sprintid(SPRINT).status(id % 2 == 0 ? "DONE" : "OPEN").build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.mislbd.spark.service;
+
+import com.mislbd.spark.dto.DocumentSearchHitDto;
+import com.mislbd.spark.repository.MitsDocumentsRepository;
+import com.mislbd.spark.service.storage.DocumentContentStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DocumentSearchIndexTest {
+
+    private static final String HASH = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @TempDir
+    Path dir;
+
+    private final DocumentContentStore contentStore = mock(DocumentContentStore.class);
+    private DocumentSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        index = new DocumentSearchIndex(mock(MitsDocumentsRepository.class), contentStore, new DocumentTextExtractor(),
+                dir.toString(), 10_000);
+        when(contentStore.exists(HASH)).thenReturn(true);
+        when(contentStore.open(HASH)).thenAnswer(invocation -> new ByteArrayInputStream(
+                "Release notes and the vendor portal".getBytes(StandardCharsets.UTF_8)));
+        index.onDocumentSaved(new MitsDocumentSavedEvent(7, HASH, "text/plain", "notes.txt"));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        index.close();
+    }
+
+    @Test
+    void querySyntaxIsHonouredWhenItParses() throws IOException {
+        assertThat(index.search("vendor AND portal", 10)).extracting(DocumentSearchHitDto::getId).containsExactly(7);
+        assertThat(index.search("vendor AND payroll", 10)).isEmpty();
+        assertThat(index.search("payroll OR notes", 10)).extracting(DocumentSearchHitDto::getId).containsExactly(7);
+    }
+
+    @Test
+    void inputThatDoesNotParseIsSearchedAsPlainTerms() throws IOException {
+        for (String query : new String[]{"AND", "OR", "NOT", "vendor AND", "NOT portal OR", "(vendor", "vendor \"portal", "portal^", "!"}) {
+            assertThat(index.search(query, 10)).as(query).isNotNull();
+        }
+        // Operator words are searched as ordinary words
+        assertThat(index.search("vendor AND", 10)).extracting(DocumentSearchHitDto::getId).containsExactly(7);
+        assertThat(index.search("(vendor", 10)).extracting(DocumentSearchHitDto::getId).containsExactly(7);
+    }
+}
@@ -0,0 +1,223 @@
+package com.mislbd.spark.service;
+
+import com.mislbd.spark.dto.DocumentUploadRequestDto;
+import com.mislbd.spark.entity.MitsDocuments;
+import com.mislbd.spark.exception.InvalidUploadException;
+import com.mislbd.spark.exception.UploadNotFoundException;
+import com.mislbd.spark.exception.UploadOffsetMismatchException;
+import com.mislbd.spark.service.storage.FileSystemDocumentContentStore;
+import com.mislbd.spark.service.storage.StagedContent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MitsDocumentUploadServiceTest {
+
+    private static final Duration EXPIRY = Duration.ofHours(1);
+    private static final byte[] HEAD = "hello ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TAIL = "world".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path dir;
+
+    private final MutableClock clock = new MutableClock();
+    private final MitsDocumentsService documentsService = mock(MitsDocumentsService.class);
+    private FileSystemDocumentContentStore store;
+    private MitsDocumentUploadService uploads;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new FileSystemDocumentContentStore(dir.resolve("store").toString());
+        uploads = new MitsDocumentUploadService(documentsService, store, dir.resolve("uploads").toString(),
+                DataSize.ofMegabytes(1), EXPIRY, clock);
+    }
+
+    @Test
+    void appendAtAnotherOffsetThanTheBytesReceivedIsRefused() throws IOException {
+        String id = start(11L);
+        uploads.appendChunk(id, 0, chunk(HEAD), null);
+
+        assertThatThrownBy(() -> uploads.appendChunk(id, 0, chunk(TAIL), null))
+                .isInstanceOf(UploadOffsetMismatchException.class);
+        assertThatThrownBy(() -> uploads.appendChunk(id, 20, chunk(TAIL), null))
+                .isInstanceOf(UploadOffsetMismatchException.class);
+
+        assertThat(uploads.getStatus(id).getReceivedBytes()).isEqualTo(HEAD.length);
+        assertThat(Files.size(partFile(id))).isEqualTo(HEAD.length);
+    }
+
+    @Test
+    void chunkWithAChecksumMismatchIsRolledBackToItsOffset() throws IOException {
+        String id = start(11L);
+        uploads.appendChunk(id, 0, chunk(HEAD), sha256(HEAD));
+
+        assertThatThrownBy(() -> uploads.appendChunk(id, HEAD.length, chunk(TAIL), sha256(HEAD)))
+                .isInstanceOf(InvalidUploadException.class);
+        assertThat(uploads.getStatus(id).getReceivedBytes()).isEqualTo(HEAD.length);
+        assertThat(Files.readAllBytes(partFile(id))).isEqualTo(HEAD);
+
+        // The client resumes from receivedBytes and the whole-file digest still matches
+        uploads.appendChunk(id, HEAD.length, chunk(TAIL), sha256(TAIL));
+        storeOnSave();
+        MitsDocuments saved = uploads.complete(id, sha256(bytes("hello world")));
+
+        assertThat(saved.getContentHash()).isEqualTo(sha256(bytes("hello world")));
+        try (InputStream stored = store.open(saved.getContentHash())) {
+            assertThat(stored.readAllBytes()).isEqualTo(bytes("hello world"));
+        }
+    }
+
+    @Test
+    void chunkPastTheDeclaredSizeIsRolledBack() throws IOException {
+        String id = start(8L);
+        uploads.appendChunk(id, 0, chunk(HEAD), null);
+
+        assertThatThrownBy(() -> uploads.appendChunk(id, HEAD.length, chunk(TAIL), null))
+                .isInstanceOf(InvalidUploadException.class);
+        assertThat(Files.size(partFile(id))).isEqualTo(HEAD.length);
+    }
+
+    @Test
+    void failedCompleteLeavesTheUploadOpenForARetry() throws IOException {
+        String id = start(null);
+        uploads.appendChunk(id, 0, chunk(HEAD), null);
+        when(documentsService.saveMitsDocumentsContent(any(MitsDocuments.class), any(StagedContent.class)))
+                .thenThrow(new IOException("disk full"));
+
+        assertThatThrownBy(() -> uploads.complete(id, null)).isInstanceOf(IOException.class);
+
+        assertThat(uploads.getStatus(id).getReceivedBytes()).isEqualTo(HEAD.length);
+        assertThat(Files.readAllBytes(partFile(id))).isEqualTo(HEAD);
+        assertThat(dir.resolve("uploads").resolve(id + ".completing")).doesNotExist();
+
+        storeOnSave();
+        MitsDocuments saved = uploads.complete(id, sha256(HEAD));
+
+        assertThat(saved.getFileSize()).isEqualTo(HEAD.length);
+        assertThat(partFile(id)).doesNotExist();
+        assertThatThrownBy(() -> uploads.getStatus(id)).isInstanceOf(UploadNotFoundException.class);
+    }
+
+    @Test
+    void uploadBeingCompletedDoesNotExpire() throws IOException {
+        String id = start(null);
+        uploads.appendChunk(id, 0, chunk(HEAD), null);
+        when(documentsService.saveMitsDocumentsContent(any(MitsDocuments.class), any(StagedContent.class)))
+                .thenAnswer(invocation -> {
+                    clock.advance(EXPIRY.multipliedBy(2));
+                    uploads.removeExpiredSessions();
+                    assertThat(uploads.getStatus(id).getReceivedBytes()).isEqualTo(HEAD.length);
+                    assertThatThrownBy(() -> uploads.appendChunk(id, HEAD.length, chunk(TAIL), null))
+                            .isInstanceOf(InvalidUploadException.class);
+                    throw new IOException("disk full");
+                });
+
+        assertThatThrownBy(() -> uploads.complete(id, null)).isInstanceOf(IOException.class);
+
+        // The failed attempt counts as activity, so the upload has a full expiry period from now
+        clock.advance(EXPIRY.minusMinutes(1));
+        uploads.removeExpiredSessions();
+        assertThat(uploads.getStatus(id).getReceivedBytes()).isEqualTo(HEAD.length);
+
+        clock.advance(EXPIRY);
+        uploads.removeExpiredSessions();
+        assertThatThrownBy(() -> uploads.getStatus(id)).isInstanceOf(UploadNotFoundException.class);
+        assertThat(partFile(id)).doesNotExist();
+    }
+
+    @Test
+    void idleUploadIsRefusedOnceExpired() throws IOException {
+        String id = start(null);
+        clock.advance(EXPIRY.plusSeconds(1));
+
+        assertThatThrownBy(() -> uploads.appendChunk(id, 0, chunk(HEAD), null))
+                .isInstanceOf(UploadNotFoundException.class);
+        assertThat(partFile(id)).doesNotExist();
+    }
+
+    private String start(Long totalSize) throws IOException {
+        return uploads.initiate(DocumentUploadRequestDto.builder()
+                .mits(1)
+                .fileName("notes.txt")
+                .totalSize(totalSize)
+                .build()).getUploadId();
+    }
+
+    // Saving publishes the staged content and echoes the document back, as MitsDocumentsService does
+    private void storeOnSave() throws IOException {
+        when(documentsService.saveMitsDocumentsContent(any(MitsDocuments.class), any(StagedContent.class)))
+                .thenAnswer(invocation -> {
+                    MitsDocuments document = invocation.getArgument(0);
+                    StagedContent staged = invocation.getArgument(1);
+                    store.publish(staged);
+                    document.setContentHash(staged.getHash());
+                    document.setFileSize(staged.getSize());
+                    return document;
+                });
+    }
+
+    private Path partFile(String id) {
+        return dir.resolve("uploads").resolve(id + ".part");
+    }
+
+    private static InputStream chunk(byte[] data) {
+        return new ByteArrayInputStream(data);
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
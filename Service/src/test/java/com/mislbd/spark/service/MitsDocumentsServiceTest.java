@@ -0,0 +1,75 @@
+package com.mislbd.spark.service;
+
+import com.mislbd.spark.entity.MitsDocuments;
+import com.mislbd.spark.repository.MitsDocumentsRepository;
+import com.mislbd.spark.service.storage.DocumentContentStore;
+import com.mislbd.spark.service.storage.StagedContent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MitsDocumentsServiceTest {
+
+    private static final String HASH = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    private final MitsDocumentsRepository repository = mock(MitsDocumentsRepository.class);
+    private final DocumentContentStore contentStore = mock(DocumentContentStore.class);
+    private final StagedContent staged = mock(StagedContent.class);
+    private MitsDocumentsService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new MitsDocumentsService(repository, contentStore, mock(PlatformTransactionManager.class),
+                mock(ApplicationEventPublisher.class));
+        when(staged.getHash()).thenReturn(HASH);
+        when(staged.getSize()).thenReturn(5L);
+        when(repository.save(any(MitsDocuments.class))).thenThrow(new IllegalStateException("constraint violated"));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void rollbackDeletesContentNoDocumentReferences() throws IOException {
+        when(repository.countByContentHash(HASH)).thenReturn(0L);
+
+        assertThatThrownBy(() -> service.saveMitsDocumentsContent(new MitsDocuments(), staged))
+                .isInstanceOf(IllegalStateException.class);
+        verify(contentStore).publish(staged);
+        rollBack();
+
+        verify(contentStore).delete(HASH);
+    }
+
+    @Test
+    void rollbackKeepsContentAnotherDocumentReferences() throws IOException {
+        when(repository.countByContentHash(HASH)).thenReturn(1L);
+
+        assertThatThrownBy(() -> service.saveMitsDocumentsContent(new MitsDocuments(), staged))
+                .isInstanceOf(IllegalStateException.class);
+        rollBack();
+
+        verify(contentStore, never()).delete(HASH);
+    }
+
+    private static void rollBack() {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    }
+}
@@ -0,0 +1,52 @@
+package com.mislbd.spark.service;
+
+import com.mislbd.spark.config.SparkCalendarProperties;
+import com.mislbd.spark.exception.InvalidSprintDatesException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorkingDayCalendarServiceTest {
+
+    private final WorkingDayCalendarService calendar = new WorkingDayCalendarService(properties());
+
+    @Test
+    void weekendsHolidaysAndTeamDaysOffAreNotWorkingDays() {
+        // Sunday 2025-12-28 to Saturday 2026-01-10, Friday and Saturday off
+        LocalDate from = LocalDate.of(2025, 12, 28);
+        LocalDate to = LocalDate.of(2026, 1, 10);
+
+        assertThat(calendar.workingDaysBetween(from, to, null)).isEqualTo(9);
+        assertThat(calendar.workingDaysBetween(from, to, 7)).isEqualTo(8);
+        assertThat(calendar.workingDaysBetween(from, to, 8)).isEqualTo(9);
+        assertThat(calendar.nonWorkingDaysBetween(from, to, 7)).isEqualTo(6);
+        assertThat(calendar.workingDaysBetween(to, from, null)).isZero();
+    }
+
+    @Test
+    void sprintsThatAreReversedOrLongerThanTheLimitAreRejected() {
+        LocalDate from = LocalDate.of(2026, 1, 1);
+        WorkingDayCalendarService.validateSprintDates(from, from.plusDays(WorkingDayCalendarService.MAX_SPRINT_DAYS - 1));
+        WorkingDayCalendarService.validateSprintDates(from, null);
+
+        assertThatThrownBy(() -> WorkingDayCalendarService.validateSprintDates(from, from.minusDays(1)))
+                .isInstanceOf(InvalidSprintDatesException.class);
+        assertThatThrownBy(() -> WorkingDayCalendarService.validateSprintDates(from,
+                from.plusDays(WorkingDayCalendarService.MAX_SPRINT_DAYS)))
+                .isInstanceOf(InvalidSprintDatesException.class);
+        assertThatThrownBy(() -> calendar.workingDaysBetween(LocalDate.of(1, 1, 1), LocalDate.of(9999, 12, 31), null))
+                .isInstanceOf(InvalidSprintDatesException.class);
+    }
+
+    private static SparkCalendarProperties properties() {
+        SparkCalendarProperties properties = new SparkCalendarProperties();
+        properties.setHolidays(List.of(LocalDate.of(2026, 1, 1)));
+        properties.setTeamDaysOff(Map.of(7, List.of(LocalDate.of(2025, 12, 29))));
+        return properties;
+    }
+}
@@ -0,0 +1,147 @@
+package com.mislbd.spark.service.index;
+
+import com.mislbd.spark.entity.BacklogTask;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BacklogTaskFacetIndexTest {
+
+    private static final String[] STATUSES = {"OPEN", "IN_PROGRESS", "DONE"};
+    private static final String[] PRIORITIES = {"LOW", "HIGH"};
+
+    private final BacklogTaskFacetIndex index = new BacklogTaskFacetIndex();
+
+    @Test
+    void valuesAreOredWithinAFacetAndFacetsAreAnded() {
+        indexTasks(30);
+
+        RoaringBitmap matches = index.matching(filters(
+                TaskFacet.STATUS, List.of("OPEN", "DONE"),
+                TaskFacet.PRIORITY, List.of("HIGH")));
+
+        assertThat(matches.toArray()).containsExactly(IntStream.rangeClosed(1, 30)
+                .filter(id -> !status(id).equals("IN_PROGRESS") && priority(id).equals("HIGH"))
+                .toArray());
+    }
+
+    @Test
+    void facetsWithoutValuesAreNotFilteredOn() {
+        indexTasks(12);
+
+        Map<TaskFacet, List<String>> filters = new EnumMap<>(TaskFacet.class);
+        filters.put(TaskFacet.STATUS, List.of());
+        filters.put(TaskFacet.PRIORITY, null);
+
+        assertThat(index.matching(filters).getCardinality()).isEqualTo(12);
+    }
+
+    @Test
+    void eachFacetIsCountedAgainstTheSelectionOnTheOtherFacets() {
+        indexTasks(60);
+
+        TaskFacetSearchResult result = index.search(filters(
+                TaskFacet.STATUS, List.of("OPEN"),
+                TaskFacet.PRIORITY, List.of("HIGH")));
+
+        // Status counts ignore the status selection but respect the priority one, and vice versa
+        assertThat(result.getCounts().get("status")).isEqualTo(expectedCounts(60, id -> priority(id).equals("HIGH"), true));
+        assertThat(result.getCounts().get("priority")).isEqualTo(expectedCounts(60, id -> status(id).equals("OPEN"), false));
+        assertThat(result.getMatches().getCardinality()).isEqualTo(10);
+        // Unselected facets are counted over the matches
+        assertThat(result.getCounts().get("module")).containsExactly(Map.entry("4", 10));
+        assertThat(result.getCounts().get("team")).isEmpty();
+    }
+
+    @Test
+    void countsAreOrderedByFrequencyThenValue() {
+        indexTasks(7);
+
+        TaskFacetSearchResult result = index.search(Map.of());
+
+        assertThat(result.getCounts().get("status").keySet()).containsExactly("IN_PROGRESS", "DONE", "OPEN");
+        assertThat(result.getCounts().get("status").values()).containsExactly(3, 2, 2);
+    }
+
+    @Test
+    void largeSelectionsAreCountedByIntersectionWithTheSameResult() {
+        indexTasks(30_000);
+
+        // 20k selected tasks over two priority values is past the tally limit
+        TaskFacetSearchResult large = index.search(filters(TaskFacet.STATUS, List.of("OPEN", "DONE")));
+        // 5k selected tasks over three status values is within it
+        TaskFacetSearchResult small = index.search(filters(TaskFacet.PRIORITY, List.of("LOW"),
+                TaskFacet.MODULE, List.of("3")));
+
+        assertThat(large.getCounts().get("priority"))
+                .isEqualTo(expectedCounts(30_000, id -> !status(id).equals("IN_PROGRESS"), false));
+        assertThat(small.getCounts().get("status"))
+                .isEqualTo(expectedCounts(30_000, id -> priority(id).equals("LOW") && id % 6 == 0, true));
+    }
+
+    @Test
+    void reindexingMovesATaskAndRemovingDropsIt() {
+        indexTasks(6);
+        index.index(BacklogTask.builder().id(1).status("DONE").build());
+        index.remove(2);
+
+        TaskFacetSearchResult result = index.search(filters(TaskFacet.STATUS, List.of("DONE")));
+
+        assertThat(result.getMatches().toArray()).containsExactly(1, 5);
+        assertThat(result.getCounts().get("status")).containsExactly(
+                Map.entry("DONE", 2), Map.entry("OPEN", 2), Map.entry("IN_PROGRESS", 1));
+        // Task 1 no longer has a priority
+        assertThat(result.getCounts().get("priority")).containsExactly(Map.entry("HIGH", 1));
+    }
+
+    private void indexTasks(int count) {
+        index.clear();
+        for (int id = 1; id <= count; id++) {
+            index.index(BacklogTask.builder()
+                    .id(id)
+                    .status(status(id))
+                    .priority(priority(id))
+                    .productModuleId(id % 6 == 0 ? 3 : 4)
+                    .build());
+        }
+    }
+
+    private static String status(int id) {
+        return STATUSES[id % STATUSES.length];
+    }
+
+    private static String priority(int id) {
+        return PRIORITIES[id % PRIORITIES.length];
+    }
+
+    // Brute-force count of statuses (or priorities) over the tasks passing the filter
+    private static Map<String, Integer> expectedCounts(int count, IntPredicate filter, boolean byStatus) {
+        return new TreeMap<>(IntStream.rangeClosed(1, count)
+                .filter(filter)
+                .boxed()
+                .collect(Collectors.groupingBy(id -> byStatus ? status(id) : priority(id),
+                        Collectors.summingInt(id -> 1))));
+    }
+
+    private static Map<TaskFacet, List<String>> filters(TaskFacet facet, List<String> values) {
+        Map<TaskFacet, List<String>> filters = new EnumMap<>(TaskFacet.class);
+        filters.put(facet, values);
+        return filters;
+    }
+
+    private static Map<TaskFacet, List<String>> filters(TaskFacet first, List<String> firstValues,
+                                                        TaskFacet second, List<String> secondValues) {
+        Map<TaskFacet, List<String>> filters = filters(first, firstValues);
+        filters.put(second, secondValues);
+        return filters;
+    }
+}
@@ -0,0 +1,136 @@
+package com.mislbd.spark.service.index;
+
+import com.mislbd.spark.entity.BacklogTask;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BacklogTaskIndexesTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final BacklogTaskFieldIndex fieldIndex = new BacklogTaskFieldIndex();
+    private final BacklogTaskIndexes indexes = new BacklogTaskIndexes(List.of(fieldIndex), clock);
+
+    @Test
+    void rebuildIndexesEveryTaskAndBecomesReady() {
+        assertThat(indexes.isReady()).isFalse();
+
+        indexes.rebuild(sink -> {
+            sink.accept(task(1, 10));
+            sink.accept(task(2, 10));
+            sink.accept(task(3, 20));
+        });
+
+        assertThat(indexes.isReady()).isTrue();
+        assertThat(fieldIndex.bySprint(10)).containsExactly(1, 2);
+        assertThat(fieldIndex.bySprint(20)).containsExactly(3);
+    }
+
+    @Test
+    void rebuildDoesNotOverwriteWritesMadeWhileItRuns() {
+        indexes.rebuild(sink -> {
+            sink.accept(task(1, 10));
+            // Task 2 moves to sprint 30 and task 3 is deleted after the rebuild read them
+            indexes.index(task(2, 30));
+            indexes.remove(3);
+            assertThat(indexes.isReady()).isFalse();
+            sink.accept(task(2, 10));
+            sink.accept(task(3, 10));
+        });
+
+        assertThat(fieldIndex.bySprint(10)).containsExactly(1);
+        assertThat(fieldIndex.bySprint(30)).containsExactly(2);
+
+        // Later writes apply normally, including to tasks that changed during the rebuild
+        indexes.index(task(2, 10));
+        assertThat(fieldIndex.bySprint(10)).containsExactly(1, 2);
+        assertThat(fieldIndex.bySprint(30)).isEmpty();
+    }
+
+    @Test
+    void rebuildReplacesWhatWasIndexedBefore() {
+        indexes.rebuild(sink -> sink.accept(task(1, 10)));
+        indexes.rebuild(sink -> sink.accept(task(2, 10)));
+
+        assertThat(fieldIndex.bySprint(10)).containsExactly(2);
+    }
+
+    @Test
+    void failedRebuildIsRetriedWithBackoff() {
+        indexes.rebuild(sink -> {
+            sink.accept(task(1, 10));
+            throw new IllegalStateException("connection lost");
+        });
+
+        assertThat(indexes.isReady()).isFalse();
+        assertThat(indexes.isRetryDue()).isFalse();
+        clock.advance(BacklogTaskIndexes.INITIAL_RETRY_DELAY);
+        assertThat(indexes.isRetryDue()).isTrue();
+
+        indexes.rebuild(sink -> {
+            throw new IllegalStateException("still down");
+        });
+        clock.advance(BacklogTaskIndexes.INITIAL_RETRY_DELAY);
+        assertThat(indexes.isRetryDue()).isFalse();
+        clock.advance(BacklogTaskIndexes.INITIAL_RETRY_DELAY);
+        assertThat(indexes.isRetryDue()).isTrue();
+
+        indexes.rebuild(sink -> sink.accept(task(1, 10)));
+        assertThat(indexes.isReady()).isTrue();
+        assertThat(indexes.isRetryDue()).isFalse();
+        assertThat(fieldIndex.bySprint(10)).containsExactly(1);
+    }
+
+    @Test
+    void retryDelayDoublesUpToTheCap() {
+        assertThat(BacklogTaskIndexes.retryDelay(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(BacklogTaskIndexes.retryDelay(2)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(BacklogTaskIndexes.retryDelay(3)).isEqualTo(Duration.ofMinutes(2));
+        assertThat(BacklogTaskIndexes.retryDelay(7)).isEqualTo(BacklogTaskIndexes.MAX_RETRY_DELAY);
+        assertThat(BacklogTaskIndexes.retryDelay(1_000)).isEqualTo(BacklogTaskIndexes.MAX_RETRY_DELAY);
+    }
+
+    @Test
+    void concurrentRebuildIsSkipped() {
+        indexes.rebuild(sink -> {
+            sink.accept(task(1, 10));
+            indexes.rebuild(inner -> inner.accept(task(99, 10)));
+        });
+
+        assertThat(fieldIndex.bySprint(10)).containsExactly(1);
+    }
+
+    private static BacklogTask task(int id, Integer sprintId) {
+        return BacklogTask.builder().id(id).sprintid(sprintId).build();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.mislbd.spark.service.index;
+
+import com.mislbd.spark.entity.BacklogTask;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BacklogTaskTextIndexTest {
+
+    private final BacklogTaskTextIndex index = new BacklogTaskTextIndex();
+
+    @Test
+    void tokenizeSplitsOnNonAlphanumericsAndLowercases() {
+        assertThat(BacklogTaskTextIndex.tokenize("Fix SPARK-42: Export (CSV)")).containsExactly("fix", "spark", "42", "export", "csv");
+        assertThat(BacklogTaskTextIndex.tokenize(" -- ")).isEmpty();
+        assertThat(BacklogTaskTextIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void titleMatchesOutrankDescriptionMatches() {
+        index(1, "Payroll fix", "invoice export");
+        index(2, "Invoice export", "fix");
+
+        assertThat(index.search("invoice", null)).containsExactly(2, 1);
+    }
+
+    @Test
+    void rarerCompletionsOfTheLastTermRankHigher() {
+        index(1, "release notes", null);
+        index(2, "release notes", null);
+        index(3, "report notes", null);
+        index(4, "release notes", null);
+
+        assertThat(index.search("notes re", null)).containsExactly(3, 1, 2, 4);
+    }
+
+    @Test
+    void everyTermMustMatchAndOnlyTheLastOneAsAPrefix() {
+        index(1, "Invoice export", null);
+        index(2, "Invoice import", null);
+
+        assertThat(index.search("invoice exp", null)).containsExactly(1);
+        assertThat(index.search("inv export", null)).isEmpty();
+        assertThat(index.search("invoice payroll", null)).isEmpty();
+        assertThat(index.search("?!", null)).isEmpty();
+    }
+
+    @Test
+    void onlyAllowedTasksAreReturned() {
+        index(1, "deploy", null);
+        index(2, "deploy", null);
+        index(3, "deploy", null);
+
+        assertThat(index.search("deploy", RoaringBitmap.bitmapOf(1, 3, 9))).containsExactly(1, 3);
+        assertThat(index.search("deploy", new RoaringBitmap())).isEmpty();
+    }
+
+    @Test
+    void reindexingReplacesTermsAndLength() {
+        index(1, "deploy", null);
+        index(2, "deploy", null);
+        assertThat(index.search("deploy", null)).containsExactly(1, 2);
+
+        // Same term frequency in a longer task scores lower
+        index(1, "deploy", "to the staging cluster after review");
+        assertThat(index.search("deploy", null)).containsExactly(2, 1);
+        assertThat(index.search("staging", null)).containsExactly(1);
+
+        index(1, "rollback", null);
+        assertThat(index.search("staging", null)).isEmpty();
+        assertThat(index.search("deploy", null)).containsExactly(2);
+
+        index.remove(2);
+        assertThat(index.search("deploy", null)).isEmpty();
+        assertThat(index.search("rollback", null)).containsExactly(1);
+    }
+
+    @Test
+    void clearDropsEverything() {
+        index(1, "deploy", null);
+        index.clear();
+
+        assertThat(index.search("deploy", null)).isEmpty();
+    }
+
+    private void index(int id, String title, String description) {
+        index.index(BacklogTask.builder().id(id).title(title).description(description).build());
+    }
+}
@@ -0,0 +1,85 @@
+package com.mislbd.spark.service.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntPostingsTest {
+
+    private final IntPostings postings = new IntPostings();
+
+    @Test
+    void keepsIdsSortedAndDistinct() {
+        postings.add(1, 30);
+        postings.add(1, 10);
+        postings.add(1, 20);
+        postings.add(1, 10);
+
+        assertThat(postings.get(1)).containsExactly(10, 20, 30);
+        assertThat(postings.get(2)).isEmpty();
+    }
+
+    @Test
+    void removesIdsAndDropsEmptyKeys() {
+        postings.add(1, 10);
+        postings.add(1, 20);
+
+        postings.remove(1, 99);
+        postings.remove(7, 10);
+        assertThat(postings.get(1)).containsExactly(10, 20);
+
+        postings.remove(1, 10);
+        assertThat(postings.get(1)).containsExactly(20);
+        postings.remove(1, 20);
+        assertThat(postings.get(1)).isEmpty();
+    }
+
+    @Test
+    void returnedArraysAreSnapshots() {
+        postings.add(1, 10);
+        int[] before = postings.get(1);
+
+        postings.add(1, 5);
+        postings.remove(1, 10);
+
+        assertThat(before).containsExactly(10);
+        assertThat(postings.get(1)).containsExactly(5);
+    }
+
+    @Test
+    void bulkLoadPublishesOnFinish() {
+        postings.add(9, 1);
+        postings.startBulkLoad();
+        for (int id = 1; id <= 10_000; id++) {
+            postings.add(id % 2, id);
+        }
+        // Writes interleaved with the load, out of order and repeated
+        postings.add(0, 0);
+        postings.add(0, 2);
+        postings.remove(1, 5);
+        postings.remove(3, 5);
+
+        assertThat(postings.get(0)).isEmpty();
+        assertThat(postings.get(9)).isEmpty();
+
+        postings.finishBulkLoad();
+        assertThat(postings.get(0)).hasSize(5_001).startsWith(0, 2, 4).endsWith(10_000).isSorted();
+        assertThat(postings.get(1)).hasSize(4_999).startsWith(1, 3, 7).isSorted();
+        assertThat(postings.get(9)).isEmpty();
+
+        // Back to copy-on-write updates
+        postings.add(1, 5);
+        assertThat(postings.get(1)).startsWith(1, 3, 5, 7);
+    }
+
+    @Test
+    void bulkLoadDropsKeysEmptiedDuringTheLoad() {
+        postings.startBulkLoad();
+        postings.add(1, 10);
+        postings.remove(1, 10);
+        postings.finishBulkLoad();
+
+        assertThat(postings.get(1)).isEmpty();
+        postings.finishBulkLoad();
+    }
+}
@@ -0,0 +1,64 @@
+package com.mislbd.spark.service.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private final TrigramIndex index = new TrigramIndex();
+
+    @Test
+    void findsSubstringsIgnoringCase() {
+        index.put(1, "Vendor Portal", "SPK-1201");
+        index.put(2, "Payroll export", "SPK-1302");
+        index.put(3, "Vending report", null);
+
+        assertThat(index.search("vend").toArray()).containsExactly(1, 3);
+        assertThat(index.search("ORT-12").toArray()).isEmpty();
+        assertThat(index.search("rt").toArray()).containsExactly(1, 2, 3);
+        assertThat(index.search("K-13").toArray()).containsExactly(2);
+    }
+
+    @Test
+    void candidatesSharingEveryGramAreVerifiedAgainstTheText() {
+        // Both contain the grams of "abcabd" ("abc", "bca", "cab", "abd") but only id 1 contains the string
+        index.put(1, "xabcabdx");
+        index.put(2, "abcab abd");
+
+        assertThat(index.search("abcabd").toArray()).containsExactly(1);
+    }
+
+    @Test
+    void gramsDoNotSpanFields() {
+        index.put(1, "ab", "cd");
+
+        assertThat(index.search("abc").toArray()).isEmpty();
+        assertThat(index.search("b").toArray()).containsExactly(1);
+    }
+
+    @Test
+    void blankAndUnknownQueriesMatchNothing() {
+        index.put(1, "release");
+
+        assertThat(index.search(null).isEmpty()).isTrue();
+        assertThat(index.search("  ").isEmpty()).isTrue();
+        assertThat(index.search("zzz").isEmpty()).isTrue();
+    }
+
+    @Test
+    void putReplacesAndRemoveDropsTheFields() {
+        index.put(1, "release notes");
+        index.put(1, "rollback plan");
+
+        assertThat(index.search("release").isEmpty()).isTrue();
+        assertThat(index.search("rollback").toArray()).containsExactly(1);
+
+        index.remove(1);
+        assertThat(index.search("rollback").isEmpty()).isTrue();
+        assertThat(index.search("ro").isEmpty()).isTrue();
+
+        index.put(2, (String) null);
+        assertThat(index.search("a").isEmpty()).isTrue();
+    }
+}
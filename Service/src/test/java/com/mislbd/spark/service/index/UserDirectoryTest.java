@@ -0,0 +1,135 @@
+package com.mislbd.spark.service.index;
+
+import com.mislbd.spark.dto.UserSuggestionDto;
+import com.mislbd.spark.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserDirectoryTest {
+
+    private final UserDirectory directory = new UserDirectory();
+
+    @Test
+    void suggestIsEmptyUntilTheFirstBuildHasFinished() {
+        assertThat(directory.suggest("a", 10)).isEmpty();
+
+        build(user(1L, "Anna", "Berg", "ACTIVE"));
+
+        assertThat(ids("a", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void matchesPrefixesOfFullNameLastNameUsernameAndEmailOnce() {
+        build(user(1L, "Anna", "Berg", "ACTIVE"),
+                user(2L, "Bert", "Holm", "active"),
+                user(3L, "Carl", "Bergman", "ACTIVE"));
+
+        assertThat(ids("ANNA B", 10)).containsExactly(1L);
+        assertThat(ids("berg", 10)).containsExactly(1L, 3L);
+        // In key order: Anna and Carl by last name, then Bert by full name
+        assertThat(ids("b", 10)).containsExactly(1L, 3L, 2L);
+        assertThat(ids("carl@", 10)).containsExactly(3L);
+        assertThat(ids(" holm ", 10)).containsExactly(2L);
+        assertThat(ids("x", 10)).isEmpty();
+    }
+
+    @Test
+    void suggestionsAreCompactAndLimited() {
+        build(user(1L, "Anna", "Berg", "ACTIVE"), user(2L, "Anders", "Berg", "ACTIVE"), user(3L, "Ann", "Lund", "ACTIVE"));
+
+        assertThat(directory.suggest("an", 2).orElseThrow())
+                .containsExactly(new UserSuggestionDto(2L, "Anders Berg", "anders@example.com"),
+                        new UserSuggestionDto(3L, "Ann Lund", "ann@example.com"));
+    }
+
+    @Test
+    void inactiveUsersAreNotListed() {
+        build(user(1L, "Anna", "Berg", "INACTIVE"), user(2L, "Anders", "Berg", null));
+
+        assertThat(ids("an", 10)).isEmpty();
+    }
+
+    @Test
+    void putReplacesTheKeysAndDeactivatingRemoves() {
+        build(user(1L, "Anna", "Berg", "ACTIVE"), user(2L, "Bert", "Holm", "ACTIVE"));
+
+        directory.put(user(1L, "Anna", "Lund", "ACTIVE"));
+        assertThat(ids("berg", 10)).isEmpty();
+        assertThat(ids("lund", 10)).containsExactly(1L);
+        assertThat(directory.suggest("anna", 1).orElseThrow().get(0).getName()).isEqualTo("Anna Lund");
+
+        directory.put(user(2L, "Bert", "Holm", "INACTIVE"));
+        assertThat(ids("b", 10)).isEmpty();
+
+        directory.put(user(3L, "Carl", "Berg", "ACTIVE"));
+        directory.remove(1L);
+        directory.remove(99L);
+        assertThat(ids("", 10)).containsExactly(3L);
+    }
+
+    @Test
+    void incrementalChangesMatchAFullBuild() {
+        Random random = new Random(7);
+        String[] names = {"anna", "anders", "bert", "berg", "carl", "cara", "dan"};
+        Map<Long, User> current = new HashMap<>();
+        build();
+        for (int i = 0; i < 500; i++) {
+            long id = 1 + random.nextInt(40);
+            if (random.nextInt(4) == 0) {
+                directory.remove(id);
+                current.remove(id);
+            } else {
+                User user = user(id, names[random.nextInt(names.length)], names[random.nextInt(names.length)],
+                        random.nextInt(5) == 0 ? "INACTIVE" : "ACTIVE");
+                directory.put(user);
+                current.put(id, user);
+            }
+        }
+
+        UserDirectory rebuilt = new UserDirectory();
+        rebuilt.startRebuild();
+        rebuilt.finishRebuild(new ArrayList<>(current.values()));
+        for (String prefix : new String[]{"", "a", "an", "ber", "c", "dan ", "x"}) {
+            assertThat(directory.suggest(prefix, 100)).isEqualTo(rebuilt.suggest(prefix, 100));
+        }
+    }
+
+    @Test
+    void writesDuringARebuildAreNotOverwrittenByTheRowsItRead() {
+        directory.startRebuild();
+        directory.put(user(1L, "Anna", "Lund", "ACTIVE"));
+        directory.remove(2L);
+
+        directory.finishRebuild(List.of(user(1L, "Anna", "Berg", "ACTIVE"), user(2L, "Bert", "Berg", "ACTIVE")));
+
+        assertThat(ids("lund", 10)).containsExactly(1L);
+        assertThat(ids("b", 10)).isEmpty();
+    }
+
+    private void build(User... users) {
+        directory.startRebuild();
+        directory.finishRebuild(List.of(users));
+    }
+
+    private List<Long> ids(String prefix, int limit) {
+        return directory.suggest(prefix, limit).orElseThrow().stream().map(UserSuggestionDto::getId).toList();
+    }
+
+    private static User user(Long id, String firstName, String lastName, String status) {
+        return User.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName(lastName)
+                .username(lastName.toLowerCase() + id)
+                .email(firstName.toLowerCase() + "@example.com")
+                .activeStatus(status)
+                .build();
+    }
+}
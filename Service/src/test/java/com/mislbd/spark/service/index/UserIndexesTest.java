@@ -0,0 +1,121 @@
+package com.mislbd.spark.service.index;
+
+import com.mislbd.spark.dto.UserSuggestionDto;
+import com.mislbd.spark.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserIndexesTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final UserSearchIndex searchIndex = new UserSearchIndex();
+    private final UserDirectory directory = new UserDirectory();
+    private final UserIndexes indexes = new UserIndexes(searchIndex, directory, clock);
+
+    @Test
+    void rebuildLoadsBothIndexes() {
+        indexes.rebuild(() -> List.of(user(1L, "Anna"), user(2L, "Bert")));
+
+        assertThat(searchIndex.search("anna").orElseThrow().toArray()).containsExactly(1);
+        assertThat(directory.suggest("bert", 10).orElseThrow()).extracting(UserSuggestionDto::getId).containsExactly(2L);
+        assertThat(indexes.isRetryDue()).isFalse();
+    }
+
+    @Test
+    void failedRebuildIsRetriedWithBackoff() {
+        indexes.rebuild(() -> {
+            throw new IllegalStateException("connection lost");
+        });
+
+        assertThat(searchIndex.search("anna")).isEmpty();
+        assertThat(directory.suggest("a", 10)).isEmpty();
+        assertThat(indexes.isRetryDue()).isFalse();
+        clock.advance(BacklogTaskIndexes.INITIAL_RETRY_DELAY);
+        assertThat(indexes.isRetryDue()).isTrue();
+
+        indexes.rebuild(() -> {
+            throw new IllegalStateException("still down");
+        });
+        clock.advance(BacklogTaskIndexes.INITIAL_RETRY_DELAY);
+        assertThat(indexes.isRetryDue()).isFalse();
+        clock.advance(BacklogTaskIndexes.INITIAL_RETRY_DELAY);
+        assertThat(indexes.isRetryDue()).isTrue();
+
+        indexes.rebuild(() -> List.of(user(1L, "Anna")));
+        assertThat(indexes.isRetryDue()).isFalse();
+        assertThat(searchIndex.search("anna").orElseThrow().toArray()).containsExactly(1);
+        assertThat(directory.suggest("a", 10).orElseThrow()).extracting(UserSuggestionDto::getId).containsExactly(1L);
+    }
+
+    @Test
+    void retryDoesNotOverwriteWritesMadeWhileItRuns() {
+        indexes.rebuild(() -> {
+            throw new IllegalStateException("connection lost");
+        });
+
+        indexes.rebuild(() -> {
+            // User 1 is renamed after the retry read it
+            searchIndex.put(user(1L, "Annabel"));
+            directory.put(user(1L, "Annabel"));
+            return List.of(user(1L, "Anna"), user(2L, "Bert"));
+        });
+
+        assertThat(searchIndex.search("annabel").orElseThrow().toArray()).containsExactly(1);
+        assertThat(directory.suggest("a", 10).orElseThrow()).extracting(UserSuggestionDto::getName)
+                .containsExactly("Annabel Berg");
+    }
+
+    @Test
+    void concurrentRebuildIsSkipped() {
+        indexes.rebuild(() -> {
+            indexes.rebuild(() -> List.of(user(99L, "Zara")));
+            assertThat(indexes.isRetryDue()).isFalse();
+            return List.of(user(1L, "Anna"));
+        });
+
+        assertThat(searchIndex.search("zara").orElseThrow().isEmpty()).isTrue();
+        assertThat(searchIndex.search("anna").orElseThrow().toArray()).containsExactly(1);
+    }
+
+    private static User user(Long id, String firstName) {
+        return User.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName("Berg")
+                .username(firstName.toLowerCase())
+                .email(firstName.toLowerCase() + "@example.com")
+                .activeStatus("ACTIVE")
+                .build();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.mislbd.spark.service.index;
+
+import com.mislbd.spark.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserSearchIndexTest {
+
+    private final UserSearchIndex index = new UserSearchIndex();
+
+    @Test
+    void searchIsEmptyUntilTheFirstBuildHasFinished() {
+        index.startRebuild();
+        assertThat(index.search("ann")).isEmpty();
+
+        index.finishRebuild(List.of(user(1L, "Anna", "anna@example.com")));
+        assertThat(index.search("ann")).hasValueSatisfying(ids -> assertThat(ids.toArray()).containsExactly(1));
+    }
+
+    @Test
+    void writesDuringARebuildAreNotOverwrittenByTheRowsItRead() {
+        index.startRebuild();
+        index.put(user(1L, "Annabel", "annabel@example.com"));
+        index.remove(2L);
+
+        index.finishRebuild(List.of(user(1L, "Anna", "anna@example.com"), user(2L, "Annika", "annika@example.com")));
+
+        assertThat(index.search("annabel").orElseThrow().toArray()).containsExactly(1);
+        assertThat(index.search("ann").orElseThrow().toArray()).containsExactly(1);
+    }
+
+    @Test
+    void usersWithIdsBeyondIntRangeSendSearchToTheDatabase() {
+        long largeId = Integer.MAX_VALUE + 1L;
+        index.startRebuild();
+        index.finishRebuild(List.of(user(1L, "Anna", "anna@example.com")));
+
+        index.put(user(largeId, "Anders", "anders@example.com"));
+        assertThat(index.search("an")).isEmpty();
+
+        index.remove(largeId);
+        assertThat(index.search("an")).isPresent();
+    }
+
+    private static User user(Long id, String firstName, String email) {
+        return User.builder().id(id).firstName(firstName).email(email).build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.mislbd.spark.service.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileSystemDocumentContentStoreTest {
+
+    // SHA-256 of "hello"
+    private static final String HELLO = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @TempDir
+    Path dir;
+
+    private FileSystemDocumentContentStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new FileSystemDocumentContentStore(dir.toString());
+    }
+
+    @Test
+    void hashesThatAreNotLowercaseSha256HexAreRejected() {
+        for (String hash : new String[]{
+                null,
+                "",
+                "../../etc/passwd",
+                "../" + HELLO.substring(3),
+                HELLO.substring(0, 63),
+                HELLO + "0",
+                HELLO.toUpperCase(),
+                "g" + HELLO.substring(1),
+                HELLO.substring(0, 62) + "/x"}) {
+            assertThatThrownBy(() -> store.exists(hash)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> store.open(hash)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> store.delete(hash)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> store.readDerivative(hash, "thumbnail.png")).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void stagingAFileUnderAnInvalidHashLeavesTheFileInPlace() throws IOException {
+        Path file = Files.writeString(dir.resolve("upload.part"), "hello");
+
+        assertThatThrownBy(() -> store.stage(file, "../../" + HELLO.substring(6), 5))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(file).hasContent("hello");
+    }
+
+    @Test
+    void derivativeNamesCannotLeaveTheContentDirectory() {
+        for (String name : new String[]{null, "", "../secret", "a/b", "thumb..png", "Thumb.png"}) {
+            assertThatThrownBy(() -> store.storeDerivative(HELLO, name, new byte[1]))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void stagedContentIsHashedAndPublishedOnce() throws IOException {
+        StagedContent first = store.stage(stream("hello"));
+        StagedContent second = store.stage(stream("hello"));
+        assertThat(first.getHash()).isEqualTo(HELLO);
+        assertThat(first.getSize()).isEqualTo(5);
+        assertThat(store.exists(HELLO)).isFalse();
+
+        store.publish(first);
+        store.publish(second);
+
+        assertThat(store.exists(HELLO)).isTrue();
+        try (InputStream content = store.open(HELLO)) {
+            assertThat(content.readAllBytes()).isEqualTo(bytes("hello"));
+        }
+        assertThat(dir.resolve("2c").resolve("f2").resolve(HELLO)).exists();
+        assertThat(tmpFiles()).isZero();
+    }
+
+    @Test
+    void discardRemovesTheStagedFile() throws IOException {
+        store.discard(store.stage(stream("hello")));
+
+        assertThat(store.exists(HELLO)).isFalse();
+        assertThat(tmpFiles()).isZero();
+    }
+
+    @Test
+    void deleteRemovesTheContentAndItsDerivatives() throws IOException {
+        store.publish(store.stage(stream("hello")));
+        store.storeDerivative(HELLO, "thumbnail.png", bytes("png"));
+        assertThat(store.readDerivative(HELLO, "thumbnail.png")).hasValueSatisfying(data ->
+                assertThat(data).isEqualTo(bytes("png")));
+
+        store.delete(HELLO);
+
+        assertThat(store.exists(HELLO)).isFalse();
+        assertThat(store.readDerivative(HELLO, "thumbnail.png")).isEmpty();
+        // Deleting content that is not stored is not an error
+        store.delete(HELLO);
+    }
+
+    private long tmpFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir.resolve("tmp"))) {
+            return files.count();
+        }
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(bytes(text));
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
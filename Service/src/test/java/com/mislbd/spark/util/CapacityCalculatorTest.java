@@ -0,0 +1,71 @@
+package com.mislbd.spark.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CapacityCalculatorTest {
+
+    @Test
+    void divideHalfUpRoundsHalvesAwayFromZero() {
+        assertThat(CapacityCalculator.divideHalfUp(15, 10)).isEqualTo(2);
+        assertThat(CapacityCalculator.divideHalfUp(14, 10)).isEqualTo(1);
+        assertThat(CapacityCalculator.divideHalfUp(-15, 10)).isEqualTo(-2);
+        assertThat(CapacityCalculator.divideHalfUp(-14, 10)).isEqualTo(-1);
+        assertThat(CapacityCalculator.divideHalfUp(15, -10)).isEqualTo(-2);
+        assertThat(CapacityCalculator.divideHalfUp(-15, -10)).isEqualTo(2);
+        assertThat(CapacityCalculator.divideHalfUp(20, 10)).isEqualTo(2);
+        assertThat(CapacityCalculator.divideHalfUp(0, 7)).isZero();
+    }
+
+    @Test
+    void divideHalfUpMatchesBigDecimal() {
+        for (long dividend = -1000; dividend <= 1000; dividend++) {
+            for (long divisor = -13; divisor <= 13; divisor++) {
+                if (divisor == 0) {
+                    continue;
+                }
+                long expected = BigDecimal.valueOf(dividend)
+                        .divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP)
+                        .longValueExact();
+                assertThat(CapacityCalculator.divideHalfUp(dividend, divisor))
+                        .as("%d / %d", dividend, divisor)
+                        .isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void toCentiRoundsToScaleTwo() {
+        assertThat(CapacityCalculator.toCenti(null)).isZero();
+        assertThat(CapacityCalculator.toCenti(new BigDecimal("2"))).isEqualTo(200);
+        assertThat(CapacityCalculator.toCenti(new BigDecimal("1.005"))).isEqualTo(101);
+        assertThat(CapacityCalculator.toCenti(new BigDecimal("1.004"))).isEqualTo(100);
+        assertThat(CapacityCalculator.toCenti(new BigDecimal("-1.005"))).isEqualTo(-101);
+        assertThat(CapacityCalculator.fromCenti(12345)).isEqualTo(new BigDecimal("123.45"));
+    }
+
+    @Test
+    void availableHoursRoundLikeTheBigDecimalCalculation() {
+        // 10 days * 8.00 h * 50.00 %
+        assertThat(CapacityCalculator.availableCentiHours(10, 800, 50_00)).isEqualTo(40_00);
+        // 3 * 7.33 * 0.3333 = 7.329267
+        assertThat(CapacityCalculator.availableCentiHours(3, 733, 33_33)).isEqualTo(7_33);
+        // 1 * 0.01 * 50.00 % = 0.005
+        assertThat(CapacityCalculator.availableCentiHours(1, 1, 50_00)).isEqualTo(1);
+        assertThat(CapacityCalculator.availableCentiHours(-2, 800, 100_00)).isZero();
+        assertThat(CapacityCalculator.totalCentiHours(-1, 800)).isZero();
+        assertThat(CapacityCalculator.totalCentiHours(10, 750)).isEqualTo(75_00);
+    }
+
+    @Test
+    void percentOfIsZeroForAnEmptyWhole() {
+        assertThat(CapacityCalculator.percentOf(500, 0)).isZero();
+        assertThat(CapacityCalculator.percentOf(1, 3)).isEqualTo(33_33);
+        assertThat(CapacityCalculator.percentOf(2, 3)).isEqualTo(66_67);
+        assertThat(CapacityCalculator.percentOf(3, 2)).isEqualTo(150_00);
+    }
+}
@@ -1,11 +1,19 @@
 ﻿import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { environment } from '../../core/config/api.config';
 import { TaskItem } from './task.model';
 
 export interface Task extends TaskItem {}
 
+/** One slice of a cursor-paginated task list; pass nextCursor back as `after`. */
+export interface TaskCursorPage {
+  items: Task[];
+  nextCursor: string | null;
+  hasMore: boolean;
+  limit: number;
+}
+
 @Injectable({ providedIn: 'root' })
 export class TaskService {
   private apiUrl = environment.apiBaseUrl + '/tasks';
@@ -19,4 +27,20 @@ export class TaskService {
   getTasksBySprint(sprintId: number): Observable<Task[]> {
     return this.http.get<Task[]>(`${this.apiUrl}/by-sprint/${sprintId}`);
   }
+
+  getTasksPage(after?: string | null, limit = 200): Observable<TaskCursorPage> {
+    return this.http.get<TaskCursorPage>(this.apiUrl, { params: this.cursorParams(after, limit) });
+  }
+
+  getTasksBySprintPage(sprintId: number, after?: string | null, limit = 200): Observable<TaskCursorPage> {
+    return this.http.get<TaskCursorPage>(`${this.apiUrl}/by-sprint/${sprintId}`, { params: this.cursorParams(after, limit) });
+  }
+
+  private cursorParams(after: string | null | undefined, limit: number): HttpParams {
+    let params = new HttpParams().set('limit', limit);
+    if (after) {
+      params = params.set('after', after);
+    }
+    return params;
+  }
 }